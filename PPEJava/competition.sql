@@ -60,6 +60,25 @@ INSERT INTO `candidat` (`id_candidat`, `nom_candidat`) VALUES
 
 -- --------------------------------------------------------
 
+--
+-- Structure de la table `change_log`
+--
+
+DROP TABLE IF EXISTS `change_log`;
+CREATE TABLE IF NOT EXISTS `change_log` (
+  `numero` bigint(20) NOT NULL AUTO_INCREMENT,
+  `entite` char(1) NOT NULL,
+  `id` int(11) NOT NULL,
+  `id_lie` int(11) DEFAULT NULL,
+  `operation` char(1) NOT NULL,
+  `origine` int(11) NOT NULL,
+  `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`numero`),
+  KEY `created_at` (`created_at`)
+) ENGINE=InnoDB DEFAULT CHARSET=latin1;
+
+-- --------------------------------------------------------
+
 --
 -- Structure de la table `competition`
 --
@@ -71,7 +90,11 @@ CREATE TABLE IF NOT EXISTS `competition` (
   `date_debut` datetime DEFAULT NULL,
   `date_fin` datetime DEFAULT NULL,
   `enEquipe` tinyint(1) DEFAULT NULL,
-  PRIMARY KEY (`id_competition`)
+  `version` int(11) NOT NULL DEFAULT 0,
+  `deleted_at` datetime DEFAULT NULL,
+  PRIMARY KEY (`id_competition`),
+  KEY `nom` (`deleted_at`,`nom_competition`,`id_competition`),
+  KEY `date_debut` (`date_debut`)
 ) ENGINE=InnoDB AUTO_INCREMENT=19 DEFAULT CHARSET=latin1;
 
 --
@@ -108,7 +131,12 @@ DROP TABLE IF EXISTS `equipe`;
 CREATE TABLE IF NOT EXISTS `equipe` (
   `id_equipe` int(11) NOT NULL AUTO_INCREMENT,
   `nom` varchar(128) NOT NULL,
-  KEY `id_equipe` (`id_equipe`)
+  `version` int(11) NOT NULL DEFAULT 0,
+  `updated_at` timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+  `deleted_at` datetime DEFAULT NULL,
+  PRIMARY KEY (`id_equipe`),
+  KEY `updated_at` (`updated_at`),
+  KEY `nom` (`deleted_at`,`nom`,`id_equipe`)
 ) ENGINE=InnoDB AUTO_INCREMENT=89 DEFAULT CHARSET=latin1;
 
 -- --------------------------------------------------------
@@ -137,7 +165,13 @@ CREATE TABLE IF NOT EXISTS `personne` (
   `mail` varchar(128) DEFAULT NULL,
   `prenom` varchar(128) DEFAULT NULL,
   `nom` varchar(128) NOT NULL DEFAULT 'default',
-  PRIMARY KEY (`id_personne`)
+  `version` int(11) NOT NULL DEFAULT 0,
+  `updated_at` timestamp(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+  `deleted_at` datetime DEFAULT NULL,
+  PRIMARY KEY (`id_personne`),
+  KEY `updated_at` (`updated_at`),
+  KEY `nom` (`deleted_at`,`nom`,`id_personne`),
+  KEY `mail` (`mail`)
 ) ENGINE=InnoDB AUTO_INCREMENT=79 DEFAULT CHARSET=latin1;
 
 --
@@ -152,21 +186,62 @@ INSERT INTO `personne` (`id_personne`, `mail`, `prenom`, `nom`) VALUES
 -- --------------------------------------------------------
 
 --
--- Structure de la table `tocompetition`
+-- Structure de la table `schema_version`
 --
 
-DROP TABLE IF EXISTS `tocompetition`;
-CREATE TABLE IF NOT EXISTS `tocompetition` (
-  `id_candidat` int(11) NOT NULL,
-  `id_competition` int(11) NOT NULL
-) ENGINE=MyISAM DEFAULT CHARSET=latin1;
+DROP TABLE IF EXISTS `schema_version`;
+CREATE TABLE IF NOT EXISTS `schema_version` (
+  `version` int(11) NOT NULL,
+  `description` varchar(255) NOT NULL,
+  `applied_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`version`)
+) ENGINE=InnoDB DEFAULT CHARSET=latin1;
+
+--
+-- Déchargement des données de la table `schema_version`
+--
+
+INSERT INTO `schema_version` (`version`, `description`) VALUES
+(1, 'Colonnes de version, de date et de suppression, tables sequence et change_log'),
+(2, 'Clé primaire de equipe'),
+(3, 'Tables de liaison toequipe et tocompetition avec clés primaires composées'),
+(4, 'Clés étrangères des tables de liaison'),
+(5, 'Index sur personne.mail et competition.date_debut');
+
+-- --------------------------------------------------------
+
+--
+-- Structure de la table `sequence`
+--
+
+DROP TABLE IF EXISTS `sequence`;
+CREATE TABLE IF NOT EXISTS `sequence` (
+  `nom` varchar(32) NOT NULL,
+  `valeur` int(11) NOT NULL,
+  PRIMARY KEY (`nom`)
+) ENGINE=InnoDB DEFAULT CHARSET=latin1;
 
 --
--- Déchargement des données de la table `tocompetition`
+-- Déchargement des données de la table `sequence`
 --
 
-INSERT INTO `tocompetition` (`id_candidat`, `id_competition`) VALUES
-(0, 18);
+INSERT INTO `sequence` (`nom`, `valeur`) VALUES
+('candidat', 88),
+('competition', 18);
+
+-- --------------------------------------------------------
+
+--
+-- Structure de la table `tocompetition`
+--
+
+DROP TABLE IF EXISTS `tocompetition`;
+CREATE TABLE IF NOT EXISTS `tocompetition` (
+  `id_candidat` int(11) NOT NULL,
+  `id_competition` int(11) NOT NULL,
+  PRIMARY KEY (`id_competition`,`id_candidat`),
+  KEY `id_candidat` (`id_candidat`)
+) ENGINE=InnoDB DEFAULT CHARSET=latin1;
 
 -- --------------------------------------------------------
 
@@ -177,8 +252,10 @@ INSERT INTO `tocompetition` (`id_candidat`, `id_competition`) VALUES
 DROP TABLE IF EXISTS `toequipe`;
 CREATE TABLE IF NOT EXISTS `toequipe` (
   `id_personne` int(11) NOT NULL,
-  `id_equipe` int(11) NOT NULL
-) ENGINE=MyISAM DEFAULT CHARSET=latin1;
+  `id_equipe` int(11) NOT NULL,
+  PRIMARY KEY (`id_equipe`,`id_personne`),
+  KEY `id_personne` (`id_personne`)
+) ENGINE=InnoDB DEFAULT CHARSET=latin1;
 
 --
 -- Contraintes pour les tables déchargées
@@ -203,6 +280,20 @@ ALTER TABLE `equipe`
 ALTER TABLE `inscrire`
   ADD CONSTRAINT `inscrire_ibfk_1` FOREIGN KEY (`id_candidat`) REFERENCES `candidat` (`id_candidat`),
   ADD CONSTRAINT `inscrire_ibfk_2` FOREIGN KEY (`id_competition`) REFERENCES `competition` (`id_competition`);
+
+--
+-- Contraintes pour la table `tocompetition`
+--
+ALTER TABLE `tocompetition`
+  ADD CONSTRAINT `tocompetition_candidat` FOREIGN KEY (`id_candidat`) REFERENCES `candidat` (`id_candidat`),
+  ADD CONSTRAINT `tocompetition_competition` FOREIGN KEY (`id_competition`) REFERENCES `competition` (`id_competition`);
+
+--
+-- Contraintes pour la table `toequipe`
+--
+ALTER TABLE `toequipe`
+  ADD CONSTRAINT `toequipe_personne` FOREIGN KEY (`id_personne`) REFERENCES `personne` (`id_personne`),
+  ADD CONSTRAINT `toequipe_equipe` FOREIGN KEY (`id_equipe`) REFERENCES `equipe` (`id_equipe`);
 COMMIT;
 
 /*!40101 SET CHARACTER_SET_CLIENT=@OLD_CHARACTER_SET_CLIENT */;
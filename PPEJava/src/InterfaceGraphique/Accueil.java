@@ -1,18 +1,18 @@
-package InterfaceGraphique;
-
-import Presentation.MainMenu;
-
-public class Accueil {
- 	
- 
- 	
-	public static void main(String[] args)
-	{
-		new Fenetre();
-		 MainMenu menu = new MainMenu();
- 	      menu.start();
-		
-	}
-
- 	
+package InterfaceGraphique;
+
+import Presentation.MainMenu;
+
+public class Accueil {
+ 	
+ 
+ 	
+	public static void main(String[] args)
+	{
+		 MainMenu menu = new MainMenu();
+		new Fenetre();
+ 	      menu.start();
+		
+	}
+
+ 	
  }
\ No newline at end of file
@@ -1,68 +1,51 @@
-package InterfaceGraphique;
-import bdd.Connect;
-import net.proteanit.sql.DbUtils;
-
-import javax.swing.JPanel;
-import javax.swing.JTable;
-
-
-
-import javax.swing.JButton;
-import javax.swing.JScrollPane;
-import java.awt.event.ActionListener;
-import java.sql.ResultSet;
-import java.awt.event.ActionEvent;
-
-import java.sql.Connection;
-import java.sql.DriverManager;
-
-import java.sql.SQLException;
-import java.sql.Statement;
-
-
-public class PanneauTestCompet extends JPanel {
-	
-	private static final long serialVersionUID = 1L;
-	private JTable table;
-	Connect bdd = new Connect();
-	private JPanel panelTest = new JPanel();
-	
-	public PanneauTestCompet() {
-		JScrollPane scrollPane = new JScrollPane();
-		add(scrollPane);
-		
-		table = new JTable();
-		scrollPane.setViewportView(table);
-		JButton btnLoadTable = new JButton("Load compet");
-		scrollPane.setRowHeaderView(btnLoadTable);
-		
-		
-		btnLoadTable.addActionListener(new ActionListener() {
-			public void actionPerformed(ActionEvent arg0) {
-				
-				try {
-				
-					Class.forName("com.mysql.jdbc.Driver");
-					String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-					String login = "root";
-					String password = "";
-					Connection cn = DriverManager.getConnection(url, login,password);
-					Statement st = cn.createStatement();	
-					String requete ="Select * From competition where competition.id_competition = id_competition";
-					ResultSet result;
-					result = st.executeQuery(requete);
-					table.setModel(DbUtils.resultSetToTableModel(result));
-					
-				} catch (ClassNotFoundException e) {
-					e.printStackTrace();
-				} catch (SQLException e) {
-					e.printStackTrace();
-				}	
-				
-			}
-		});
-		
-
-	}
-
-}
+package InterfaceGraphique;
+import bdd.Page;
+import inscriptions.Competition;
+
+import javax.swing.JPanel;
+import javax.swing.JTable;
+
+
+
+import javax.swing.JButton;
+import javax.swing.JScrollPane;
+import javax.swing.table.DefaultTableModel;
+import java.awt.event.ActionListener;
+import java.awt.event.ActionEvent;
+
+
+public class PanneauTestCompet extends JPanel {
+	
+	private static final long serialVersionUID = 1L;
+	private static final int TAILLE_PAGE = 50;
+	private JTable table;
+	private String suivante;
+	private JPanel panelTest = new JPanel();
+	
+	public PanneauTestCompet() {
+		JScrollPane scrollPane = new JScrollPane();
+		add(scrollPane);
+		
+		table = new JTable();
+		scrollPane.setViewportView(table);
+		JButton btnLoadTable = new JButton("Load compet");
+		scrollPane.setRowHeaderView(btnLoadTable);
+		
+		
+		btnLoadTable.addActionListener(new ActionListener() {
+			public void actionPerformed(ActionEvent arg0) {
+				
+				Page<Competition> page = Panneau.getInscriptions().getCompetitions(suivante, TAILLE_PAGE);
+				DefaultTableModel modele = new DefaultTableModel(new Object[] {"id_competition", "nom_competition", "date_cloture", "enEquipe"}, 0);
+				for (Competition competition : page.getElements())
+					modele.addRow(new Object[] {competition.getId(), competition.getNom(), competition.getDateCloture(), competition.estEnEquipe()});
+				table.setModel(modele);
+				suivante = page.getSuivante();
+				
+			}
+		});
+		
+
+	}
+
+}
@@ -1,5 +1,5 @@
-package InterfaceGraphique;
-
-public class Profil {
-
-}
+package InterfaceGraphique;
+
+public class Profil {
+
+}
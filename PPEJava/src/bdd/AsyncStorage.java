@@ -0,0 +1,205 @@
+package bdd;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import inscriptions.Competition;
+import inscriptions.Equipe;
+import inscriptions.Inscriptions;
+import inscriptions.Personne;
+
+/**
+ * Accès asynchrone au stockage d'une {@link Inscriptions} : chaque
+ * opération est faite sur un exécuteur dédié et retourne tout de suite un
+ * {@link CompletableFuture}, pour que l'appelant continue pendant les
+ * échanges avec la base.
+ *
+ * Chaque écriture est faite dans sa propre transaction : si le stockage la
+ * refuse, le futur échoue avec une {@link PersistanceException} au lieu que
+ * l'erreur soit seulement affichée.
+ *
+ * Les lectures, et les écritures tant qu'elles modifient l'inscription et
+ * ses objets (ids, identity map), se font sous le verrou de l'inscription ;
+ * l'attente de la base se fait hors du verrou. L'appelant qui lit ou
+ * modifie l'inscription depuis un autre thread pendant ce temps doit
+ * prendre le même verrou. Depuis Swing, le résultat s'utilise par exemple
+ * avec {@code thenAcceptAsync(..., SwingUtilities::invokeLater)}.
+ */
+
+public class AsyncStorage
+{
+	private static final ExecutorService EXECUTEUR = executeur();
+
+	private final Inscriptions inscription;
+
+	public AsyncStorage(Inscriptions inscription)
+	{
+		this.inscription = inscription;
+	}
+
+	/**
+	 * Des threads virtuels quand la JVM en a (Java 21), sinon un nombre fixe
+	 * de threads, de l'ordre de celui des connexions du pool.
+	 */
+
+	private static ExecutorService executeur()
+	{
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newFixedThreadPool(Integer.getInteger("bdd.async.threads", 8), tache -> {
+				Thread thread = new Thread(tache, "AsyncStorage");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	/**
+	 * Enregistre une personne créée sans l'être.
+	 * @param personne
+	 * @return la personne, avec son id.
+	 */
+
+	public CompletableFuture<Personne> savePersonneAsync(Personne personne)
+	{
+		return ecrire(personne, stockage -> stockage.save(personne));
+	}
+
+	/**
+	 * Enregistre une équipe créée sans l'être.
+	 * @param equipe
+	 * @return l'équipe, avec son id.
+	 */
+
+	public CompletableFuture<Equipe> saveEquipeAsync(Equipe equipe)
+	{
+		return ecrire(equipe, stockage -> stockage.save(equipe));
+	}
+
+	/**
+	 * Enregistre une compétition créée sans l'être.
+	 * @param competition
+	 * @return la compétition, avec son id.
+	 */
+
+	public CompletableFuture<Competition> saveCompetitionAsync(Competition competition)
+	{
+		return ecrire(competition, stockage -> stockage.save(competition));
+	}
+
+	/**
+	 * Enregistre les modifications d'une personne.
+	 * @param personne
+	 * @return
+	 */
+
+	public CompletableFuture<Personne> updateAsync(Personne personne)
+	{
+		return ecrire(personne, stockage -> stockage.update(personne));
+	}
+
+	public CompletableFuture<Equipe> updateAsync(Equipe equipe)
+	{
+		return ecrire(equipe, stockage -> stockage.update(equipe));
+	}
+
+	public CompletableFuture<Competition> updateAsync(Competition competition)
+	{
+		return ecrire(competition, stockage -> stockage.update(competition));
+	}
+
+	/**
+	 * Lit la personne d'id donné.
+	 * @param id
+	 * @return la personne, null si elle n'existe pas.
+	 */
+
+	public CompletableFuture<Personne> loadPersonneAsync(int id)
+	{
+		return lire(() -> inscription.getPersonne(id));
+	}
+
+	public CompletableFuture<Equipe> loadEquipeAsync(int id)
+	{
+		return lire(() -> inscription.getEquipe(id));
+	}
+
+	public CompletableFuture<Competition> loadCompetitionAsync(int id)
+	{
+		return lire(() -> inscription.getCompetition(id));
+	}
+
+	/**
+	 * Lit toutes les personnes.
+	 * @return
+	 */
+
+	public CompletableFuture<List<Personne>> loadPersonnesAsync()
+	{
+		return lire(() -> new ArrayList<>(inscription.getPersonnes()));
+	}
+
+	/**
+	 * Lit toutes les équipes.
+	 * @return
+	 */
+
+	public CompletableFuture<List<Equipe>> loadEquipesAsync()
+	{
+		return lire(() -> new ArrayList<>(inscription.getEquipes()));
+	}
+
+	/**
+	 * Lit toutes les compétitions.
+	 * @return
+	 */
+
+	public CompletableFuture<List<Competition>> loadCompetitionsAsync()
+	{
+		return lire(() -> new ArrayList<>(inscription.getCompetitions()));
+	}
+
+	/**
+	 * Attend que les écritures déjà faites, différées ou non, soient dans
+	 * le stockage.
+	 * @return
+	 */
+
+	public CompletableFuture<Void> flushAsync()
+	{
+		return CompletableFuture.runAsync(() -> inscription.getStockage().flush(), EXECUTEUR);
+	}
+
+	private <T> CompletableFuture<T> ecrire(T objet, Consumer<StorageEngine> ecriture)
+	{
+		return CompletableFuture.supplyAsync(() -> {
+			StorageEngine stockage = inscription.getStockage();
+			stockage.commencer();
+			try {
+				synchronized (inscription) {
+					ecriture.accept(stockage);
+				}
+			} catch (RuntimeException e) {
+				stockage.annuler();
+				throw e;
+			}
+			stockage.valider();
+			return objet;
+		}, EXECUTEUR);
+	}
+
+	private <T> CompletableFuture<T> lire(Supplier<T> lecture)
+	{
+		return CompletableFuture.supplyAsync(() -> {
+			synchronized (inscription) {
+				return lecture.get();
+			}
+		}, EXECUTEUR);
+	}
+}
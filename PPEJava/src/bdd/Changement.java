@@ -0,0 +1,80 @@
+package bdd;
+
+import static bdd.Requetes.*;
+
+import java.security.SecureRandom;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.IntSupplier;
+
+/**
+ * Ligne de la table change_log, écrite dans la même transaction que
+ * l'écriture d'un objet ou d'un lien qu'elle signale. Les autres instances
+ * de l'application la lisent pour mettre à jour leur inscription (voir
+ * {@link Invalidation}). Les lignes d'un même lot partent en une requête.
+ */
+
+class Changement implements Ecriture
+{
+	static final String PERSONNE = "P", EQUIPE = "E", COMPETITION = "C", MEMBRE = "M", INSCRIPTION = "I";
+	static final String AJOUT = "A", MODIFICATION = "M", SUPPRESSION = "S";
+
+	/**
+	 * Identifie cette instance de l'application, qui ignore ses propres
+	 * changements.
+	 */
+
+	static final int ORIGINE = new SecureRandom().nextInt();
+
+	private final String entite, operation;
+	private final IntSupplier id, idLie;
+	private final Ecriture condition;
+
+	/**
+	 * @param entite
+	 * @param id
+	 * @param idLie l'équipe d'un membre, la compétition d'une inscription, null sinon.
+	 * @param operation
+	 * @param condition la modification signalée : sans colonne modifiée,
+	 * rien n'est écrit. null pour toujours écrire.
+	 */
+
+	Changement(String entite, IntSupplier id, IntSupplier idLie, String operation, Ecriture condition)
+	{
+		this.entite = entite;
+		this.id = id;
+		this.idLie = idLie;
+		this.operation = operation;
+		this.condition = condition;
+	}
+
+	Changement(String entite, IntSupplier id, String operation)
+	{
+		this(entite, id, null, operation, null);
+	}
+
+	@Override
+	public void executer(Connection cn) throws SQLException
+	{
+		if (getRequete() != null)
+			Connect.executer(cn, INSERT_CHANGE_LOG, getParametres());
+	}
+
+	@Override
+	public String getRequete()
+	{
+		return condition != null && condition.getRequete() == null ? null : INSERT_CHANGE_LOG;
+	}
+
+	@Override
+	public Object[] getParametres()
+	{
+		return new Object[] {entite, id.getAsInt(), idLie == null ? null : idLie.getAsInt(), operation, ORIGINE};
+	}
+
+	@Override
+	public boolean estModification()
+	{
+		return condition != null;
+	}
+}
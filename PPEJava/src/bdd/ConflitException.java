@@ -0,0 +1,35 @@
+package bdd;
+
+import inscriptions.Entite;
+
+/**
+ * Modification refusée parce que l'objet a été modifié en base depuis sa
+ * lecture, par exemple depuis un autre poste. Rien n'a été écrit et l'objet
+ * garde ses modifications : après
+ * {@link inscriptions.Inscriptions#fusionner(ConflitException)}, qui y
+ * reporte les modifications faites en base, elles peuvent être réécrites.
+ * Les méthodes edite* de l'inscription le font une fois d'elles-mêmes ;
+ * en écriture différée, l'objet est relu au vidage suivant.
+ */
+
+public class ConflitException extends PersistanceException
+{
+	private static final long serialVersionUID = -4571530268730186452L;
+	private final transient Entite entite;
+
+	public ConflitException(Entite entite)
+	{
+		super("Modifié depuis sa lecture : " + entite.getClass().getSimpleName() + " " + entite.getId(), null);
+		this.entite = entite;
+	}
+
+	/**
+	 * Retourne l'objet dont la modification a été refusée.
+	 * @return
+	 */
+
+	public Entite getEntite()
+	{
+		return entite;
+	}
+}
@@ -1,601 +1,1408 @@
-package bdd;
-import inscriptions.*;
-import java.io.Serializable;
-import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
-import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-
-
-public class Connect implements Serializable
-{
-	private static final long serialVersionUID = -6035399822298694746L;
-
-//	static Connection cn = null;
-//	Statement st = null;
-	
-
-	//	public Connect()
-	//		{
-	//			try
-	//			{
-	//				Class.forName("com.mysql.jdbc.Driver");
-	//				Connection connexion = DriverManager.getConnection("jdbc:mysql://localhost/m2ljava?autoReconnect=true&useSSL=false", "root","");
-	//				Connect.cn = connexion;
-					
-	//			}
-	//			catch(Exception e)
-	//			{	
-	//				 System.out.println( "Erreur lors de la connexion : " + e.getMessage() );
-	//			} 
-	//			
-	//		}
-	
-	
-	public void selectPersonne(Inscriptions inscription)
-	{
-		try {
-			Class.forName("com.mysql.jdbc.Driver");
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();	
-			String requete ="Select * From personne";
-			ResultSet result;
-			result = st.executeQuery(requete);
-			while ( result.next() ) {
-			    Personne personne = inscription.createPersonne(result.getString( "nom" ),result.getString( "prenom" ), result.getString( "mail" ),false);
-			    personne.setId(result.getInt("id_personne"));
-			}
-			
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}	
-	}
-	
-	
-		public static HashMap<String, Integer> selectPersonne()
-			{
-				HashMap<String, Integer> listeP =  new LinkedHashMap<String, Integer>();
-				try {
-					Statement st = null;
-					String requete ="SELECT * FROM candidat, personne where id_candidat = id_personne";
-					String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-					String login = "root";
-					String password = "";
-					Connection cn = DriverManager.getConnection(url, login,password);
-					st = cn.createStatement();	
-					ResultSet result;
-					result = st.executeQuery(requete);
-					while ( result.next() ) {
-					  String nom = result.getString( "nom" );
-						int idP = result.getInt("id_personne");
-						listeP.put(nom,idP);
-					}
-					
-				} catch (Exception e) {
-					e.printStackTrace();
-				}	
-				return listeP;
-			}
-	
-	public static void afficheP(Inscriptions inscription)
-	{
-		try {
-			Class.forName("com.mysql.jdbc.Driver");
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();	
-			String requete ="Select * From personne where personne.id_personne = id_personne";
-			ResultSet result;
-			result = st.executeQuery(requete);
-			while ( result.next() ) {
-			    Personne personne = inscription.createPersonne(result.getString( "nom" ),result.getString( "prenom" ), result.getString( "mail" ),false);
-			    personne.setId(result.getInt("id_personne"));
-			}
-			
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}	
-	}
-	
-	
-	public static void afficheC (Inscriptions inscription)
-	{
-		try {
-			Class.forName("com.mysql.jdbc.Driver");
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();	
-			String requete ="Select * From competition where competition.id_competition = id_competition";
-			ResultSet result;
-			result = st.executeQuery(requete);
-			while ( result.next() ) {
-			    Personne personne = inscription.createPersonne(result.getString( "nom" ),result.getString( "prenom" ), result.getString( "mail" ),false);
-			    personne.setId(result.getInt("id_personne"));
-			}
-			
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}	
-	}
-	
-	public static void selectEquipe(Inscriptions inscription)
-	{
-		try {
-			Class.forName("com.mysql.jdbc.Driver");
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();	
-			String requete ="Select * From equipe e,candidat c WHERE e.id_equipe = c.id_candidat";
-			ResultSet result;
-			result = st.executeQuery(requete);
-			while ( result.next() ) {
-			    Equipe equipe = inscription.createEquipe(result.getString( "nom"),false);
-			    equipe.setId(result.getInt("id_candidat"));
-			}
-
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}	
-	}
-	
-	public void selectCompetitions(Inscriptions inscription)
-	{
-		try {
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Class.forName("com.mysql.jdbc.Driver");
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();	
-			String requete ="Select * From competition";
-			ResultSet result;
-			result = st.executeQuery(requete);
-			while ( result.next() ) {
-				LocalDate date = LocalDate.now().plusMonths((long) 2.0);
-			    inscription.createCompetition(result.getString( "nom" ),date, (result.getInt("enequipe") == 1),false);
-			}
-
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}	
-	}
-	
-	public void selecttoEquipe(Inscriptions inscription)
-	{
-		try {
-			Class.forName("com.mysql.jdbc.Driver");
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();	
-			String requete ="Select * From toequipe a,candidat c WHERE a.id_equipe= c.id_candidat";
-			ResultSet result;
-			result = st.executeQuery(requete);
-			while ( result.next() )
-			{
-				for(Equipe e : inscription.getEquipes())
-				{
-					if(e.getId()==result.getInt("id_equipe"))
-					{
-						for(Personne p : inscription.getPersonnes())
-						{
-							if(p.getId()==result.getInt("id_personne"))
-							{
-									e.add(p,false);
-							}
-						}
-					}
-				}
-			}
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-	}
-	
-	public void selecttoCompetition(Inscriptions inscription)
-	{
-		try {
-			Class.forName("com.mysql.jdbc.Driver");
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();	
-			String requete ="Select * From attcompetition a,candidat c WHERE a.id_candidat= c.id_candidat";
-			ResultSet result;
-			result = st.executeQuery(requete);
-			while ( result.next() )
-			{
-				for(Competition c: inscription.getCompetitions())
-				{
-					if(c.getId()==result.getInt("id_competition"))
-					{
-						for(Candidat ca : inscription.getCandidats())
-						{
-							if(ca.getId()==result.getInt("id_candidat"))
-							{
-									ca.add(c,false);
-							}
-						}
-					}
-				}
-			}
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-	}
-	
-	public void save(Personne personne) 
-	{	
-			try {
-				Class.forName("com.mysql.jdbc.Driver");
-				String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-				String login = "root";
-				String password = "";
-				Connection cn = DriverManager.getConnection(url, login,password);
-				Statement st = cn.createStatement();	
-				String requete ="Insert into personne(prenom,mail,nom) values ('"+personne.getPrenom()+"','"+personne.getMail()+"','"+personne.getNom()+"')";
-				
-				 int idp = st.executeUpdate(requete , Statement.RETURN_GENERATED_KEYS);
-				 ResultSet rs= st.getGeneratedKeys();
-		            if (rs.next()) 
-		            {
-		              System.out.println("Last Inserted ID = "+rs.getLong(1));
-		            }    
- 
-		           
-				String requete3 ="Insert into candidat(id_candidat,nom_candidat) values ('"+rs.getLong(1)+"','"+personne.getNom()+"')";
-				st.executeUpdate(requete3);
-				
-
-			} catch (ClassNotFoundException e) {
-				e.printStackTrace();
-			} catch (SQLException e) {
-				e.printStackTrace();
-			}
-				
-	}
-	public void save(Equipe equipe) 
-	{	
-		try {
-			Class.forName("com.mysql.jdbc.Driver");
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();	
-
-
-			String requete3 ="Insert into candidat(nom_candidat) values ('"+equipe.getNom()+"')";
-
-			
-			  long idequipe = st.executeUpdate(requete3 , Statement.RETURN_GENERATED_KEYS);
-	            ResultSet rs= st.getGeneratedKeys();
-	            if (rs.next()) 
-	            {
-	              System.out.println("Last Inserted ID = "+rs.getLong(1));
-	            }    
-	            
-			String requete ="Insert into equipe(id_equipe,nom) values ('"+rs.getLong(1)+"','"+equipe.getNom()+"')";
-			
-
-			st.executeUpdate(requete);
-			int idCandidat=0;
-			String requete4="SELECT id_candidat FROM candidat";
-			ResultSet result2= st.executeQuery(requete4);
-			while (result2.next()) 
-			{
-			    idCandidat = result2.getInt( "id_candidat" );
-			}
-			equipe.setId(idCandidat);
-			
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-				
-	}
-	public static void updateE(Equipe equipe) 
-	{	
-		try {
-			Class.forName("com.mysql.jdbc.Driver");
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();	
-
-
-			String requete3 ="UPDATE candidat set nom_candidat = '"+equipe.getNom()+"' WHERE id_candidat = '"+equipe.getId()+"'";
-
-			st.executeUpdate(requete3);	
-			
-			  long idequipe = st.executeUpdate(requete3 , Statement.RETURN_GENERATED_KEYS);
-	            ResultSet rs= st.getGeneratedKeys();
-	            if (rs.next()) 
-	            {
-	              System.out.println("Last Inserted ID = "+rs.getLong(1));
-	            }    
-	            
-			String requete ="UPDATE equipe set nom = '"+equipe.getNom()+"' WHERE id_equipe = '"+equipe.getId()+"'";
-			
-
-			st.executeUpdate(requete);
-			int idCandidat=0;
-			String requete4="SELECT id_candidat FROM candidat";
-			ResultSet result2= st.executeQuery(requete4);
-			while (result2.next()) 
-			{
-			    idCandidat = result2.getInt( "id_candidat" );
-			}
-			equipe.setId(idCandidat);
-			
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-				
-	}
-	
-	
-	public static void updateP(Personne personne) 
-	{	
-		try {
-			Class.forName("com.mysql.jdbc.Driver");
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();	
-
-
-			String requete3 ="UPDATE candidat set nom_candidat = '"+personne.getNom()+"' WHERE id_candidat = '"+personne.getId()+"'";
-
-			st.executeUpdate(requete3);	
-			
-			  long idpersonne = st.executeUpdate(requete3 , Statement.RETURN_GENERATED_KEYS);
-	            ResultSet rs= st.getGeneratedKeys();
-	            if (rs.next()) 
-	            {
-	              System.out.println("Last Inserted ID = "+rs.getLong(1));
-	            }    
-	            
-			String requete ="UPDATE personne set nom = '"+personne.getNom()+"',prenom = '"+personne.getPrenom()+"',mail = '"+personne.getMail()+"' WHERE id_personne = '"+personne.getId()+"'";
-			
-
-			st.executeUpdate(requete);
-			int idCandidat=0;
-			String requete4="SELECT id_candidat FROM candidat";
-			ResultSet result2= st.executeQuery(requete4);
-			while (result2.next()) 
-			{
-			    idCandidat = result2.getInt( "id_candidat" );
-			}
-			personne.setId(idCandidat);
-			
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-				
-	}
-	public void save(Competition competition) 
-	{	
-		try {
-			Class.forName("com.mysql.jdbc.Driver");
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();	
-			
-			int equipe = competition.estEnEquipe() ? 1 : 0;
-			
-			String requete ="Insert into competition(date_debut,nom_competition,enEquipe) values ('"+competition.getDateCloture()+"','"+competition.getNom()+"','"+equipe+"')";
-			st.executeUpdate(requete);
-			
-			int idCompetition=0;
-			String requete4="SELECT id_competition FROM competition";
-			ResultSet result2= st.executeQuery(requete4);
-			while (result2.next()) 
-			{
-			    idCompetition = result2.getInt( "id_competition" );
-			}
-			competition.setId(idCompetition);
-			
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-				
-	}
-	public void save(Personne personne,Equipe equipe) 
-	{	
-		try {
-			Class.forName("com.mysql.jdbc.Driver");
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();		
-			String requete ="Insert into toequipe(id_personne,id_equipe) values ('"+personne.getId()+"','"+equipe.getId()+"')";
-			st.executeUpdate(requete);		
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-				
-	}
-	public void save(Candidat candidat,Competition competition) 
-	{	
-		try {
-			Class.forName("com.mysql.jdbc.Driver");	
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();		
-			String requete ="Insert into tocompetition(id_candidat,id_competition) values ("+candidat.getId()+","+competition.getId()+")";
-			st.executeUpdate(requete);		
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-				
-	}
-	
-	
-	public void deleteP(Personne personne)
-	{
-		try {
-			Class.forName("com.mysql.jdbc.Driver");	
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();	
-			String requete ="UPDATE personne SET deleted_at = NOW() WHERE id_candidat = "+personne.getId();
-			st.executeUpdate(requete);
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-		
-	}
-	public static void deleteE(Equipe equipe)
-	{
-		try {
-			Class.forName("com.mysql.jdbc.Driver");
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();	
-			String requete ="DELETE from equipe WHERE id_equipe = "+equipe.getId();
-			st.executeUpdate(requete);	
-			Connect.deleteC(equipe);
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-		
-	}
-	public static void deleteC(Candidat candidat)
-	{
-		try {
-			Class.forName("com.mysql.jdbc.Driver");	
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();	
-			String requete ="DELETE from candidat WHERE id_candidat = "+candidat.getId();
-			st.executeUpdate(requete);	
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			System.out.println("");
-		}
-		
-	}
-	
-	public void delete(Competition competition)
-	{
-		try {
-			Class.forName("com.mysql.jdbc.Driver");	
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();	
-			String requete ="UPDATE competition SET deleted_at = NOW() WHERE id_candidat = "+competition.getId();
-			st.executeUpdate(requete);	
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-	}
-	
-	public void delete(Personne personne, Equipe equipe)
-	{
-		try {
-			Class.forName("com.mysql.jdbc.Driver");	
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();	
-			String requete ="DELETE FROM toequipe WHERE id_personne="+personne.getId()+" AND id_equipe="+equipe.getId();
-			st.executeUpdate(requete);	
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-	}
-	
-	
-	
-	
-	public static void updateC(Competition competition) 
-	{	
-		try {
-			Class.forName("com.mysql.jdbc.Driver");
-			String url = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false";
-			String login = "root";
-			String password = "";
-			Connection cn = DriverManager.getConnection(url, login,password);
-			Statement st = cn.createStatement();	
-
-
-			String requete3 ="UPDATE competition set nom_competition = '"+competition.getNom()+"' WHERE id_competition = '"+competition.getId()+"'";
-
-			st.executeUpdate(requete3);	
-			
-			  
-			
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-				
-	}
-}
\ No newline at end of file
+package bdd;
+import static bdd.Requetes.*;
+
+import inscriptions.*;
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Stockage dans la base MySQL, par le pool de connexions. L'écriture
+ * différée et les transactions en cours sont communes à toutes les
+ * instances.
+ */
+
+public class Connect implements StorageEngine, Serializable
+{
+	private static final long serialVersionUID = -6035399822298694746L;
+	private static volatile WriteBehind writeBehind;
+	private static final Queue<Map.Entry<Entite, List<String>>> echouees = new ConcurrentLinkedQueue<>();
+	private static final Queue<ConflitException> conflits = new ConcurrentLinkedQueue<>();
+	private static final ThreadLocal<List<Ecriture>> transaction = new ThreadLocal<>();
+	private static Thread arret;
+	private transient Invalidation invalidation;
+
+	/**
+	 * Durée (ms) relue avant la dernière date de synchronisation, pour ne pas
+	 * manquer une ligne datée avant cette date mais validée après la lecture.
+	 */
+
+	private static final long RECOUVREMENT = 5000;
+
+	/**
+	 * Nombre maximum d'objets dont une association est lue en une requête.
+	 */
+
+	private static final int TAILLE_LOT = 64;
+
+	/**
+	 * Ids des candidats et des compétitions, réservés par blocs.
+	 */
+
+	private static final int BLOC = Integer.getInteger("bdd.sequence.bloc", 50);
+	static final Sequence candidats = new Sequence("candidat", INSERT_SEQUENCE_CANDIDAT, BLOC);
+	static final Sequence competitions = new Sequence("competition", INSERT_SEQUENCE_COMPETITION, BLOC);
+
+	/**
+	 * Insertions qui peuvent être réordonnées entre elles pour être groupées
+	 * en lots, dans l'ordre où elles doivent s'exécuter : une ligne avant
+	 * celles qui y font référence.
+	 */
+
+	private static final List<String> INSERTIONS = Arrays.asList(INSERT_CANDIDAT, INSERT_COMPETITION,
+			INSERT_PERSONNE, INSERT_EQUIPE, INSERT_TOEQUIPE, INSERT_TOCOMPETITION, INSERT_CHANGE_LOG);
+
+	/**
+	 * Colonne de chaque champ modifiable, par table (voir {@link Modification}).
+	 */
+
+	private static final Map<String, String> COLONNES_CANDIDAT = colonnes(Candidat.NOM, "nom_candidat");
+	private static final Map<String, String> COLONNES_PERSONNE = colonnes(Candidat.NOM, "nom",
+			Personne.PRENOM, "prenom", Personne.MAIL, "mail");
+	private static final Map<String, String> COLONNES_EQUIPE = colonnes(Candidat.NOM, "nom");
+	private static final Map<String, String> COLONNES_COMPETITION = colonnes(Competition.NOM, "nom_competition",
+			Competition.DATE_CLOTURE, "date_debut");
+
+	private static Map<String, String> colonnes(String... champsColonnes)
+	{
+		Map<String, String> colonnes = new LinkedHashMap<>();
+		for (int i = 0; i < champsColonnes.length; i += 2)
+			colonnes.put(champsColonnes[i], champsColonnes[i + 1]);
+		return Collections.unmodifiableMap(colonnes);
+	}
+
+	/**
+	 * Emprunte une connexion à la base principale, pour écrire ou pour lire
+	 * ce qui vient d'être écrit. Elle est rendue au pool à sa fermeture.
+	 * @return
+	 * @throws SQLException
+	 */
+
+	public static Connection getConnection() throws SQLException
+	{
+		return Routage.getRoutage().ecriture();
+	}
+
+	/**
+	 * Emprunte une connexion pour une lecture qui tolère un léger retard :
+	 * à une réplique à jour s'il y en a une (voir {@link Routage}), sinon à
+	 * la base principale.
+	 * @return
+	 * @throws SQLException
+	 */
+
+	public static Connection getConnectionLecture() throws SQLException
+	{
+		return Routage.getRoutage().lecture();
+	}
+
+	public void selectPersonne(Inscriptions inscription)
+	{
+		afficheP(inscription);
+	}
+
+	public void afficheP(Inscriptions inscription)
+	{
+		flush();
+		try (Curseur<Personne> personnes = new Curseur<>(SELECT_PERSONNE, result -> personne(inscription, result, true))) {
+			while (personnes.hasNext())
+				personnes.next();
+
+		} catch (SQLException | PersistanceException e) {
+			e.printStackTrace();
+		}
+		evincer(inscription);
+	}
+
+	/**
+	 * Parcourt les personnes de la base sans les charger toutes en mémoire,
+	 * pour les exports ou les traitements de grandes tables. Les personnes
+	 * déjà chargées sont retournées telles quelles, les autres sont lues
+	 * sans être ajoutées à l'inscription. La lecture tolère un léger retard.
+	 * @param inscription
+	 * @return un curseur à fermer après usage.
+	 * @throws PersistanceException si la requête échoue.
+	 */
+
+	public Curseur<Personne> parcourirPersonnes(Inscriptions inscription)
+	{
+		flush();
+		try
+		{
+			return new Curseur<>(getConnectionLecture(), SELECT_PERSONNE, result -> personne(inscription, result, false));
+		}
+		catch (SQLException e)
+		{
+			throw new PersistanceException(e);
+		}
+	}
+
+	/**
+	 * Retourne la personne de la ligne courante. Si elle est déjà chargée,
+	 * elle est mise à jour au lieu d'être recréée, sauf si la ligne, lue sur
+	 * une réplique en retard, est d'une version plus ancienne, ou si elle a
+	 * des modifications pas encore écrites (voir {@link #fusionner}).
+	 * @param inscription
+	 * @param result
+	 * @param charger vrai pour ajouter une personne pas encore chargée à l'inscription.
+	 * @return
+	 * @throws SQLException
+	 */
+
+	static Personne personne(Inscriptions inscription, ResultSet result, boolean charger) throws SQLException
+	{
+		IdentityMap identites = IdentityMap.de(inscription);
+		int id = result.getInt("id_personne");
+		String nom = result.getString("nom");
+		Candidat connu = identites.candidat(id);
+		if (connu instanceof Personne)
+		{
+			Personne personne = (Personne) connu;
+			if (result.getInt("version") < personne.getVersion() || personne.estModifie())
+				return personne;
+			if (!personne.getNom().equals(nom))
+				memoire(inscription).renommer(personne, nom);
+			memoire(inscription).mettreAJour(personne, result.getString("prenom"), result.getString("mail"));
+			personne.setVersion(result.getInt("version"));
+			return personne;
+		}
+		Personne personne = new Personne(inscription, nom, result.getString("prenom"), result.getString("mail"), false);
+		personne.setId(id);
+		personne.setVersion(result.getInt("version"));
+		if (charger)
+		{
+			memoire(inscription).charger(personne);
+			identites.ajouter(personne);
+			identites.lue(personne);
+		}
+		return personne;
+	}
+
+	/**
+	 * Retourne l'équipe de la ligne courante, chargée dans l'inscription.
+	 * Si elle est déjà chargée, elle est mise à jour au lieu d'être recréée.
+	 * Une ligne d'une version plus ancienne est ignorée, de même pour une
+	 * équipe qui a des modifications pas encore écrites.
+	 * @param inscription
+	 * @param result
+	 * @return
+	 * @throws SQLException
+	 */
+
+	static Equipe equipe(Inscriptions inscription, ResultSet result) throws SQLException
+	{
+		IdentityMap identites = IdentityMap.de(inscription);
+		int id = result.getInt("id_equipe");
+		String nom = result.getString("nom");
+		Candidat connu = identites.candidat(id);
+		if (connu instanceof Equipe)
+		{
+			if (result.getInt("version") < connu.getVersion() || connu.estModifie())
+				return (Equipe) connu;
+			if (!connu.getNom().equals(nom))
+				memoire(inscription).renommer(connu, nom);
+			connu.setVersion(result.getInt("version"));
+			return (Equipe) connu;
+		}
+		Equipe equipe = new Equipe(inscription, nom, false);
+		equipe.setId(id);
+		equipe.setVersion(result.getInt("version"));
+		memoire(inscription).charger(equipe);
+		identites.ajouter(equipe);
+		identites.lue(equipe);
+		return equipe;
+	}
+
+	/**
+	 * Applique à l'inscription les personnes ajoutées, modifiées ou
+	 * supprimées en base depuis la dernière synchronisation. Une même
+	 * personne peut être relue d'une synchronisation à l'autre.
+	 * @param inscription
+	 * @param depuis la date retournée par l'appel précédent, null pour tout lire.
+	 * @return la date à passer à l'appel suivant.
+	 */
+
+	public Timestamp personnesModifiees(Inscriptions inscription, Timestamp depuis)
+	{
+		return modifications(inscription, SELECT_PERSONNE_DEPUIS, "id_personne", depuis,
+				result -> personne(inscription, result, true));
+	}
+
+	/**
+	 * Applique à l'inscription les équipes ajoutées, modifiées ou
+	 * supprimées en base depuis la dernière synchronisation, comme
+	 * {@link #personnesModifiees}.
+	 * @param inscription
+	 * @param depuis
+	 * @return
+	 */
+
+	public Timestamp equipesModifiees(Inscriptions inscription, Timestamp depuis)
+	{
+		return modifications(inscription, SELECT_EQUIPE_DEPUIS, "id_equipe", depuis,
+				result -> equipe(inscription, result));
+	}
+
+	private Timestamp modifications(Inscriptions inscription, String requete, String colonneId,
+			Timestamp depuis, Curseur.Lecture<? extends Candidat> lecture)
+	{
+		chargerTout(inscription);
+		flush();
+		Timestamp derniere = depuis;
+		Timestamp borne = new Timestamp(depuis == null ? 0 : Math.max(0, depuis.getTime() - RECOUVREMENT));
+		try (Curseur<ResultSet> lignes = new Curseur<>(requete, result -> result, borne)) {
+			while (lignes.hasNext()) {
+				ResultSet result = lignes.next();
+				Timestamp date = result.getTimestamp("updated_at");
+				if (derniere == null || date.after(derniere))
+					derniere = date;
+				appliquer(inscription, result, colonneId, lecture);
+			}
+		} catch (SQLException | PersistanceException e) {
+			e.printStackTrace();
+		}
+		evincer(inscription);
+		return derniere;
+	}
+
+	/**
+	 * Applique à l'inscription une ligne de personne ou d'équipe lue avec
+	 * sa date de suppression : chargée si elle existe, retirée sinon.
+	 * @param inscription
+	 * @param result
+	 * @param colonneId
+	 * @param lecture
+	 * @throws SQLException
+	 */
+
+	static void appliquer(Inscriptions inscription, ResultSet result, String colonneId,
+			Curseur.Lecture<? extends Candidat> lecture) throws SQLException
+	{
+		if (result.getTimestamp("deleted_at") == null)
+			lecture.lire(result);
+		else
+		{
+			IdentityMap identites = IdentityMap.de(inscription);
+			Candidat connu = identites.candidat(result.getInt(colonneId));
+			if (connu != null)
+			{
+				memoire(inscription).oublier(connu);
+				identites.retirer(connu);
+			}
+		}
+	}
+
+	public void selectEquipe(Inscriptions inscription)
+	{
+		flush();
+		try (Curseur<Equipe> equipes = new Curseur<>(SELECT_EQUIPE, result -> equipe(inscription, result))) {
+			while (equipes.hasNext())
+				equipes.next();
+
+		} catch (SQLException | PersistanceException e) {
+			e.printStackTrace();
+		}
+		evincer(inscription);
+	}
+
+	public void selectCompetitions(Inscriptions inscription)
+	{
+		flush();
+		try (Connection cn = getConnection();
+				PreparedStatement st = cn.prepareStatement(SELECT_COMPETITION);
+				ResultSet result = st.executeQuery()) {
+			while ( result.next() )
+				competition(inscription, result);
+
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		evincer(inscription);
+	}
+
+	/**
+	 * Retourne la compétition de la ligne courante, chargée dans l'inscription.
+	 * Si elle est déjà chargée, elle est mise à jour au lieu d'être recréée.
+	 * Une ligne d'une version plus ancienne est ignorée, de même pour une
+	 * compétition qui a des modifications pas encore écrites.
+	 * @param inscription
+	 * @param result
+	 * @return
+	 * @throws SQLException
+	 */
+
+	static Competition competition(Inscriptions inscription, ResultSet result) throws SQLException
+	{
+		IdentityMap identites = IdentityMap.de(inscription);
+		int id = result.getInt("id_competition");
+		String nom = result.getString("nom_competition");
+		Competition connue = identites.competition(id);
+		if (connue != null) {
+			if (result.getInt("version") < connue.getVersion() || connue.estModifie())
+				return connue;
+			if (!connue.getNom().equals(nom))
+				memoire(inscription).renommer(connue, nom);
+			connue.setVersion(result.getInt("version"));
+			return connue;
+		}
+		java.sql.Date debut = result.getDate("date_debut");
+		LocalDate date = debut != null ? debut.toLocalDate() : LocalDate.now().plusMonths((long) 2.0);
+	    Competition competition = inscription.createCompetition(nom, date, (result.getInt("enequipe") == 1),false);
+	    competition.setId(id);
+	    competition.setVersion(result.getInt("version"));
+	    identites.ajouter(competition);
+	    identites.lue(competition);
+	    return competition;
+	}
+
+	/**
+	 * Retourne la personne d'id donné, lue en base si elle n'est pas
+	 * encore chargée.
+	 * @param inscription
+	 * @param id
+	 * @return la personne, null si elle n'existe pas.
+	 * @throws PersistanceException si la lecture échoue.
+	 */
+
+	public Personne personne(Inscriptions inscription, int id)
+	{
+		Candidat connu = IdentityMap.de(inscription).candidat(id);
+		if (connu instanceof Personne)
+			return (Personne) connu;
+		return lire(inscription, SELECT_PERSONNE_ID, id, result -> personne(inscription, result, true));
+	}
+
+	/**
+	 * Retourne l'équipe d'id donné, lue en base si elle n'est pas
+	 * encore chargée.
+	 * @param inscription
+	 * @param id
+	 * @return l'équipe, null si elle n'existe pas.
+	 * @throws PersistanceException si la lecture échoue.
+	 */
+
+	public Equipe equipe(Inscriptions inscription, int id)
+	{
+		Candidat connu = IdentityMap.de(inscription).candidat(id);
+		if (connu instanceof Equipe)
+			return (Equipe) connu;
+		return lire(inscription, SELECT_EQUIPE_ID, id, result -> equipe(inscription, result));
+	}
+
+	/**
+	 * Retourne la compétition d'id donné, lue en base si elle n'est pas
+	 * encore chargée.
+	 * @param inscription
+	 * @param id
+	 * @return la compétition, null si elle n'existe pas.
+	 * @throws PersistanceException si la lecture échoue.
+	 */
+
+	public Competition competition(Inscriptions inscription, int id)
+	{
+		Competition connue = IdentityMap.de(inscription).competition(id);
+		if (connue != null)
+			return connue;
+		return lire(inscription, SELECT_COMPETITION_ID, id, result -> competition(inscription, result));
+	}
+
+	<T> T lire(Inscriptions inscription, String requete, int id, Curseur.Lecture<T> lecture)
+	{
+		flush();
+		try (Connection cn = getConnection();
+				PreparedStatement st = cn.prepareStatement(requete)) {
+			st.setInt(1, id);
+			try (ResultSet result = st.executeQuery()) {
+				return result.next() ? lecture.lire(result) : null;
+			}
+		} catch (SQLException e) {
+			throw new PersistanceException(e);
+		} finally {
+			evincer(inscription);
+		}
+	}
+
+	/**
+	 * Lit une page de personnes en base, à partir du nom et de l'id du
+	 * curseur : seules les lignes de la page sont lues, sur une réplique
+	 * si possible.
+	 * @param inscription
+	 * @param apres
+	 * @param taille
+	 * @return
+	 * @throws PersistanceException si la lecture échoue.
+	 */
+
+	public Page<Personne> pagePersonnes(Inscriptions inscription, String apres, int taille)
+	{
+		return page(inscription, SELECT_PERSONNE_PREMIERE_PAGE, SELECT_PERSONNE_PAGE, apres, taille,
+				result -> personne(inscription, result, true), Personne::getNom, Personne::getId);
+	}
+
+	public Page<Equipe> pageEquipes(Inscriptions inscription, String apres, int taille)
+	{
+		return page(inscription, SELECT_EQUIPE_PREMIERE_PAGE, SELECT_EQUIPE_PAGE, apres, taille,
+				result -> equipe(inscription, result), Equipe::getNom, Equipe::getId);
+	}
+
+	public Page<Competition> pageCompetitions(Inscriptions inscription, String apres, int taille)
+	{
+		return page(inscription, SELECT_COMPETITION_PREMIERE_PAGE, SELECT_COMPETITION_PAGE, apres, taille,
+				result -> competition(inscription, result), Competition::getNom, Competition::getId);
+	}
+
+	private <T> Page<T> page(Inscriptions inscription, String premiere, String suivante, String apres, int taille,
+			Curseur.Lecture<T> lecture, Function<T, String> nom, ToIntFunction<T> id)
+	{
+		flush();
+		try (Connection cn = getConnectionLecture();
+				PreparedStatement st = cn.prepareStatement(apres == null ? premiere : suivante)) {
+			if (apres == null)
+				st.setInt(1, taille + 1);
+			else
+			{
+				String nomApres = Page.nom(apres);
+				st.setString(1, nomApres);
+				st.setString(2, nomApres);
+				st.setInt(3, Page.id(apres));
+				st.setInt(4, taille + 1);
+			}
+			List<T> lus = new ArrayList<>();
+			try (ResultSet result = st.executeQuery()) {
+				while (result.next())
+					lus.add(lecture.lire(result));
+			}
+			return Page.de(lus, taille, nom, id);
+		} catch (SQLException e) {
+			throw new PersistanceException(e);
+		} finally {
+			evincer(inscription);
+		}
+	}
+
+	/**
+	 * Relit en base un objet dont la modification a été refusée, puis y
+	 * remet les valeurs des champs modifiés en mémoire. Ses champs modifiés
+	 * sont retirés avant la relecture, qui sinon l'ignorerait.
+	 * @param inscription
+	 * @param entite
+	 * @throws PersistanceException si la lecture échoue.
+	 */
+
+	public void fusionner(Inscriptions inscription, Entite entite)
+	{
+		flush();
+		Set<String> champs = entite.extraireModifications();
+		if (entite instanceof Personne)
+		{
+			Personne personne = (Personne) entite;
+			String nom = personne.getNom(), prenom = personne.getPrenom(), mail = personne.getMail();
+			lire(inscription, SELECT_PERSONNE_ID, personne.getId(), result -> personne(inscription, result, true));
+			if (champs.contains(Personne.PRENOM))
+				personne.setPrenom(prenom);
+			if (champs.contains(Personne.MAIL))
+				personne.setMail(mail);
+			fusionnerNom(inscription, personne, champs, nom);
+		}
+		else if (entite instanceof Equipe)
+		{
+			Equipe equipe = (Equipe) entite;
+			String nom = equipe.getNom();
+			lire(inscription, SELECT_EQUIPE_ID, equipe.getId(), result -> equipe(inscription, result));
+			fusionnerNom(inscription, equipe, champs, nom);
+		}
+		else
+		{
+			Competition competition = (Competition) entite;
+			String nom = competition.getNom();
+			lire(inscription, SELECT_COMPETITION_ID, competition.getId(), result -> competition(inscription, result));
+			if (champs.contains(Competition.NOM) && !competition.getNom().equals(nom))
+			{
+				memoire(inscription).renommer(competition, nom);
+				competition.modifier(Competition.NOM);
+			}
+			if (champs.contains(Competition.DATE_CLOTURE))
+				competition.modifier(Competition.DATE_CLOTURE);
+		}
+	}
+
+	private static void fusionnerNom(Inscriptions inscription, Candidat candidat, Set<String> champs, String nom)
+	{
+		if (champs.contains(Candidat.NOM) && !candidat.getNom().equals(nom))
+		{
+			memoire(inscription).renommer(candidat, nom);
+			candidat.modifier(Candidat.NOM);
+		}
+	}
+
+	/**
+	 * Met le schéma de la base à jour au premier appel (voir
+	 * {@link Migrations}), puis démarre le suivi des changements écrits par
+	 * les autres instances de l'application (voir {@link Invalidation}), toutes les
+	 * bdd.changelog.periode ms, 1000 par défaut, 0 pour ne pas suivre. Les
+	 * lignes de change_log plus anciennes que bdd.changelog.conservation
+	 * secondes, un jour par défaut, sont supprimées. Les changements relevés
+	 * sont appliqués à la lecture suivante de l'inscription (voir
+	 * {@link #chargerTout}).
+	 * @param inscription
+	 * @param memoire
+	 */
+
+	@Override
+	public void ouvrir(Inscriptions inscription, Memoire memoire)
+	{
+		IdentityMap.de(inscription).setMemoire(memoire);
+		Migrations.demarrer();
+		long periode = Long.getLong("bdd.changelog.periode", 1000L);
+		if (periode > 0 && invalidation == null)
+			invalidation = new Invalidation(inscription, periode,
+					Long.getLong("bdd.changelog.conservation", 86400L));
+	}
+
+	/**
+	 * Limite le nombre de candidats et de compétitions gardés en mémoire
+	 * pour l'inscription, 0 pour ne pas le limiter. Au-delà, les moins
+	 * récemment utilisés sont retirés de l'inscription et relus en base
+	 * à la demande ; ceux dont une écriture est en attente sont gardés.
+	 * @param inscription
+	 * @param taille
+	 */
+
+	public void limiterCache(Inscriptions inscription, int taille)
+	{
+		IdentityMap.de(inscription).setCapacite(taille);
+		evincer(inscription);
+	}
+
+	/**
+	 * Applique à l'inscription les changements écrits par les autres
+	 * instances et relevés depuis par le suivi (voir {@link Invalidation}) :
+	 * c'est le thread qui lit l'inscription qui les applique, pas celui du
+	 * suivi.
+	 * @param inscription
+	 */
+
+	@Override
+	public void chargerTout(Inscriptions inscription)
+	{
+		Invalidation suivi = invalidation;
+		if (suivi == null || !suivi.enAttente())
+			return;
+		flush();
+		try {
+			suivi.appliquer(inscription);
+		} catch (SQLException | PersistanceException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Retourne l'accès à la mémoire de l'inscription, donné à l'ouverture.
+	 * @param inscription
+	 * @return
+	 */
+
+	static Memoire memoire(Inscriptions inscription)
+	{
+		return IdentityMap.de(inscription).getMemoire();
+	}
+
+	/**
+	 * Retire de l'inscription les objets évincés du cache, sans toucher à
+	 * leurs associations ni rien écrire. Les champs des écritures échouées
+	 * sont d'abord notés de nouveau modifiés, pour que leurs objets restent.
+	 * @param inscription
+	 */
+
+	static void evincer(Inscriptions inscription)
+	{
+		remarquer();
+		for (Object evince : IdentityMap.de(inscription).evincer())
+		{
+			if (evince instanceof Candidat)
+				memoire(inscription).evincer((Candidat) evince);
+			else
+				memoire(inscription).evincer((Competition) evince);
+		}
+	}
+
+	/**
+	 * Charge toute la base au premier appel : les tables d'objets en
+	 * parallèle, puis les tables de liaison (voir {@link Hydratation}).
+	 * @param inscription
+	 * @param progression
+	 */
+
+	@Override
+	public void hydrater(Inscriptions inscription, Progression progression)
+	{
+		if (!IdentityMap.de(inscription).hydrater())
+			return;
+		flush();
+		Hydratation hydratation = new Hydratation(inscription);
+		try {
+			hydratation.hydrater(progression);
+			memoire(inscription).setLues(hydratation.getPersonnesLues(), hydratation.getEquipesLues());
+		} catch (SQLException | PersistanceException e) {
+			e.printStackTrace();
+		}
+		evincer(inscription);
+	}
+
+	/**
+	 * Lit les compétitions du candidat si elles ne l'ont pas encore été,
+	 * avec celles d'autres candidats lus en base, en une requête par lot.
+	 * @param candidat
+	 */
+
+	public void chargerCompetitions(Candidat candidat)
+	{
+		chargerLot(candidat.getInscriptions(), IdentityMap.COMPETITIONS, candidat, Candidat::getId,
+				SELECT_TOCOMPETITION_CANDIDATS, IdentityMap::competition,
+				(c, competition) -> ((Competition) competition).add(c, false), SELECT_COMPETITION_IN);
+	}
+
+	/**
+	 * Lit les candidats de la compétition s'ils ne l'ont pas encore été,
+	 * avec ceux d'autres compétitions lues en base, en une requête par lot.
+	 * @param competition
+	 */
+
+	public void chargerCandidats(Competition competition)
+	{
+		chargerLot(competition.getInscriptions(), IdentityMap.CANDIDATS, competition, Competition::getId,
+				SELECT_TOCOMPETITION_COMPETITIONS, IdentityMap::candidat,
+				(c, candidat) -> c.add((Candidat) candidat, false), SELECT_PERSONNE_IN, SELECT_EQUIPE_IN);
+	}
+
+	/**
+	 * Lit les membres de l'équipe s'ils ne l'ont pas encore été, avec
+	 * ceux d'autres équipes lues en base, en une requête par lot.
+	 * @param equipe
+	 */
+
+	public void chargerMembres(Equipe equipe)
+	{
+		chargerLot(equipe.getInscriptions(), IdentityMap.MEMBRES, equipe, Equipe::getId,
+				SELECT_TOEQUIPE_EQUIPES, IdentityMap::candidat, (e, membre) -> {
+					if (membre instanceof Personne)
+						e.add((Personne) membre, false);
+				}, SELECT_PERSONNE_IN);
+	}
+
+	/**
+	 * Lit les équipes de la personne si elles ne l'ont pas encore été,
+	 * avec celles d'autres personnes lues en base, en une requête par lot.
+	 * @param personne
+	 */
+
+	public void chargerEquipes(Personne personne)
+	{
+		chargerLot(personne.getInscriptions(), IdentityMap.EQUIPES, personne, Personne::getId,
+				SELECT_TOEQUIPE_PERSONNES, IdentityMap::candidat, (p, equipe) -> {
+					if (equipe instanceof Equipe)
+						((Equipe) equipe).add(p, false);
+				}, SELECT_EQUIPE_IN);
+	}
+
+	/**
+	 * Lit une association d'entite et d'autres objets en attente du même
+	 * type. La table de liaison est lue en une requête IN, puis les objets
+	 * liés pas encore chargés en une requête IN par table, puis chaque
+	 * lien est établi en mémoire.
+	 * @param inscription
+	 * @param association
+	 * @param entite
+	 * @param id
+	 * @param requeteLiens retourne (id du propriétaire, id de l'objet lié).
+	 * @param lie retourne l'objet lié déjà chargé, ou null.
+	 * @param lier
+	 * @param requetesLies lisent les objets liés pas encore chargés.
+	 */
+
+	private <T> void chargerLot(Inscriptions inscription, int association, T entite, ToIntFunction<T> id,
+			String requeteLiens, BiFunction<IdentityMap, Integer, Object> lie, BiConsumer<T, Object> lier,
+			String... requetesLies)
+	{
+		if (inscription == null)
+			return;
+		IdentityMap identites = IdentityMap.de(inscription);
+		List<T> lot = identites.lot(association, entite, TAILLE_LOT);
+		if (lot.isEmpty())
+			return;
+		flush();
+		Map<Integer, T> proprietaires = new HashMap<>();
+		for (T proprietaire : lot)
+			proprietaires.put(id.applyAsInt(proprietaire), proprietaire);
+		List<int[]> liens = new ArrayList<>();
+		try (Connection cn = getConnectionLecture()) {
+			try (PreparedStatement st = dans(cn, requeteLiens, proprietaires.keySet());
+					ResultSet result = st.executeQuery()) {
+				while (result.next())
+					liens.add(new int[] {result.getInt(1), result.getInt(2)});
+			}
+			Set<Integer> manquants = new HashSet<>();
+			for (int[] lien : liens)
+				if (lie.apply(identites, lien[1]) == null)
+					manquants.add(lien[1]);
+			for (String requete : requetesLies)
+			{
+				if (manquants.isEmpty())
+					break;
+				try (PreparedStatement st = dans(cn, requete, manquants);
+						ResultSet result = st.executeQuery()) {
+					while (result.next())
+						manquants.remove(id(lireLie(inscription, requete, result)));
+				}
+			}
+		} catch (SQLException e) {
+			identites.remettre(association, lot);
+			e.printStackTrace();
+			return;
+		}
+		for (int[] lien : liens)
+		{
+			Object objet = lie.apply(identites, lien[1]);
+			if (objet != null)
+				lier.accept(proprietaires.get(lien[0]), objet);
+		}
+		evincer(inscription);
+	}
+
+	private static Object lireLie(Inscriptions inscription, String requete, ResultSet result) throws SQLException
+	{
+		if (requete.equals(SELECT_PERSONNE_IN))
+			return personne(inscription, result, true);
+		if (requete.equals(SELECT_EQUIPE_IN))
+			return equipe(inscription, result);
+		return competition(inscription, result);
+	}
+
+	private static int id(Object objet)
+	{
+		return objet instanceof Candidat ? ((Candidat) objet).getId() : ((Competition) objet).getId();
+	}
+
+	/**
+	 * Prépare une requête IN (%s) pour les ids donnés. Le nombre de
+	 * paramètres est arrondi à la puissance de deux supérieure, en
+	 * répétant le dernier id, pour que le cache de requêtes préparées
+	 * n'en garde que quelques variantes.
+	 * @param cn
+	 * @param requete
+	 * @param ids
+	 * @return
+	 * @throws SQLException
+	 */
+
+	static PreparedStatement dans(Connection cn, String requete, Collection<Integer> ids) throws SQLException
+	{
+		int n = ids.size() <= 1 ? 1 : Integer.highestOneBit(ids.size() - 1) << 1;
+		StringBuilder parametres = new StringBuilder("?");
+		for (int i = 1; i < n; i++)
+			parametres.append(", ?");
+		PreparedStatement st = cn.prepareStatement(String.format(requete, parametres));
+		int i = 0, dernier = 0;
+		for (int id : ids)
+			st.setInt(++i, dernier = id);
+		while (i < n)
+			st.setInt(++i, dernier);
+		return st;
+	}
+
+	/**
+	 * Enregistre une personne. Son id lui est attribué tout de suite, ses
+	 * lignes sont écrites ensuite en une transaction.
+	 * @param personne
+	 * @throws PersistanceException si aucun id n'a pu être réservé.
+	 */
+
+	public void save(Personne personne)
+	{
+		personne.setId(candidats.suivant());
+		IdentityMap.de(personne.getInscriptions()).ajouter(personne);
+		ecrire(personne, Ecriture.requete(null, INSERT_CANDIDAT,
+				() -> new Object[] {personne.getId(), personne.getNom()}),
+				Ecriture.requete(null, INSERT_PERSONNE,
+				() -> new Object[] {personne.getId(), personne.getPrenom(), personne.getMail(), personne.getNom()}),
+				new Changement(Changement.PERSONNE, personne::getId, Changement.AJOUT));
+	}
+
+	public void save(Equipe equipe)
+	{
+		equipe.setId(candidats.suivant());
+		IdentityMap.de(equipe.getInscriptions()).ajouter(equipe);
+		ecrire(equipe, Ecriture.requete(null, INSERT_CANDIDAT,
+				() -> new Object[] {equipe.getId(), equipe.getNom()}),
+				Ecriture.requete(null, INSERT_EQUIPE,
+				() -> new Object[] {equipe.getId(), equipe.getNom()}),
+				new Changement(Changement.EQUIPE, equipe::getId, Changement.AJOUT));
+	}
+	/**
+	 * Écrit les champs modifiés de l'équipe depuis sa dernière écriture,
+	 * rien s'il n'y en a pas.
+	 * @param equipe
+	 */
+
+	public void update(Equipe equipe)
+	{
+		Supplier<Set<String>> champs = Modification.partagee(equipe::extraireModifications);
+		Modification modification = new Modification(Arrays.asList("equipe", equipe), "equipe", "id_equipe", equipe,
+				champs, COLONNES_EQUIPE, champ -> equipe.getNom(), true);
+		ecrire(equipe, new Modification(Arrays.asList("candidat", equipe), "candidat", "id_candidat", equipe, champs,
+				COLONNES_CANDIDAT, champ -> equipe.getNom(), false), modification,
+				new Changement(Changement.EQUIPE, equipe::getId, null, Changement.MODIFICATION, modification));
+	}
+
+	/**
+	 * Écrit les champs modifiés de la personne depuis sa dernière écriture,
+	 * rien s'il n'y en a pas.
+	 * @param personne
+	 */
+
+	public void update(Personne personne)
+	{
+		Supplier<Set<String>> champs = Modification.partagee(personne::extraireModifications);
+		Modification modification = new Modification(Arrays.asList("personne", personne), "personne", "id_personne",
+				personne, champs, COLONNES_PERSONNE, champ -> valeur(personne, champ), true);
+		ecrire(personne, new Modification(Arrays.asList("candidat", personne), "candidat", "id_candidat", personne, champs,
+				COLONNES_CANDIDAT, champ -> personne.getNom(), false), modification,
+				new Changement(Changement.PERSONNE, personne::getId, null, Changement.MODIFICATION, modification));
+	}
+
+	private static Object valeur(Personne personne, String champ)
+	{
+		switch (champ)
+		{
+			case Personne.PRENOM:
+				return personne.getPrenom();
+			case Personne.MAIL:
+				return personne.getMail();
+			default:
+				return personne.getNom();
+		}
+	}
+	public void save(Competition competition)
+	{
+		competition.setId(competitions.suivant());
+		IdentityMap.de(competition.getInscriptions()).ajouter(competition);
+		ecrire(competition, Ecriture.requete(null, INSERT_COMPETITION,
+				() -> new Object[] {competition.getId(), java.sql.Date.valueOf(competition.getDateCloture()),
+						competition.getNom(), competition.estEnEquipe() ? 1 : 0}),
+				new Changement(Changement.COMPETITION, competition::getId, Changement.AJOUT));
+	}
+	public void save(Personne personne,Equipe equipe)
+	{
+		ecrire(lien(INSERT_TOEQUIPE, personne, equipe, Changement.AJOUT));
+	}
+	public void save(Candidat candidat,Competition competition)
+	{
+		ecrire(inscription(INSERT_TOCOMPETITION, candidat, competition, Changement.AJOUT));
+	}
+
+	/**
+	 * Enregistre l'appartenance de plusieurs personnes à une équipe,
+	 * en un seul lot et une seule transaction.
+	 * @param membres
+	 * @param equipe
+	 */
+
+	public void save(Collection<Personne> membres, Equipe equipe)
+	{
+		List<Ecriture> ecritures = new ArrayList<>();
+		for (Personne personne : membres)
+			ecritures.addAll(lien(INSERT_TOEQUIPE, personne, equipe, Changement.AJOUT));
+		ecrire(ecritures);
+	}
+
+	/**
+	 * Enregistre l'inscription de plusieurs candidats à une compétition,
+	 * en un seul lot et une seule transaction.
+	 * @param candidats
+	 * @param competition
+	 */
+
+	public void save(Collection<? extends Candidat> candidats, Competition competition)
+	{
+		List<Ecriture> ecritures = new ArrayList<>();
+		for (Candidat candidat : candidats)
+			ecritures.addAll(inscription(INSERT_TOCOMPETITION, candidat, competition, Changement.AJOUT));
+		ecrire(ecritures);
+	}
+
+
+	public void delete(Personne personne)
+	{
+		IdentityMap.de(personne.getInscriptions()).retirer(personne);
+		ecrire(Arrays.asList(Ecriture.requete(null, DELETE_PERSONNE, () -> new Object[] {personne.getId()}),
+				new Changement(Changement.PERSONNE, personne::getId, Changement.SUPPRESSION)));
+	}
+	public void delete(Equipe equipe)
+	{
+		IdentityMap.de(equipe.getInscriptions()).retirer(equipe);
+		ecrire(Arrays.asList(Ecriture.requete(null, DELETE_EQUIPE, () -> new Object[] {equipe.getId()}),
+				new Changement(Changement.EQUIPE, equipe::getId, Changement.SUPPRESSION)));
+	}
+
+	public void delete(Competition competition)
+	{
+		IdentityMap.de(competition.getInscriptions()).retirer(competition);
+		ecrire(Arrays.asList(Ecriture.requete(null, DELETE_COMPETITION, () -> new Object[] {competition.getId()}),
+				new Changement(Changement.COMPETITION, competition::getId, Changement.SUPPRESSION)));
+	}
+
+	public void delete(Personne personne, Equipe equipe)
+	{
+		ecrire(lien(DELETE_TOEQUIPE, personne, equipe, Changement.SUPPRESSION));
+	}
+
+	public void delete(Candidat candidat, Competition competition)
+	{
+		ecrire(inscription(DELETE_TOCOMPETITION, candidat, competition, Changement.SUPPRESSION));
+	}
+
+
+
+
+	/**
+	 * Oublie l'id d'un candidat créé par une transaction annulée. L'id, déjà
+	 * réservé dans la séquence, reste inutilisé.
+	 * @param candidat
+	 */
+
+	public void oublier(Candidat candidat)
+	{
+		IdentityMap.de(candidat.getInscriptions()).retirer(candidat);
+		candidat.setId(0);
+	}
+
+	public void oublier(Competition competition)
+	{
+		IdentityMap.de(competition.getInscriptions()).retirer(competition);
+		competition.setId(0);
+	}
+
+	public void update(Competition competition)
+	{
+		Modification modification = new Modification(Arrays.asList("competition", competition), "competition",
+				"id_competition", competition, Modification.partagee(competition::extraireModifications), COLONNES_COMPETITION,
+				champ -> Competition.DATE_CLOTURE.equals(champ) ? java.sql.Date.valueOf(competition.getDateCloture()) : competition.getNom(),
+				true);
+		ecrire(competition, modification,
+				new Changement(Changement.COMPETITION, competition::getId, null, Changement.MODIFICATION, modification));
+	}
+
+	/**
+	 * Retourne l'écriture d'un lien entre une personne et une équipe, suivie
+	 * de son changement (voir {@link Changement}).
+	 * @param requete
+	 * @param personne
+	 * @param equipe
+	 * @param operation
+	 * @return
+	 */
+
+	private static List<Ecriture> lien(String requete, Personne personne, Equipe equipe, String operation)
+	{
+		return Arrays.asList(Ecriture.requete(null, requete, () -> new Object[] {personne.getId(), equipe.getId()}),
+				new Changement(Changement.MEMBRE, personne::getId, equipe::getId, operation, null));
+	}
+
+	private static List<Ecriture> inscription(String requete, Candidat candidat, Competition competition, String operation)
+	{
+		return Arrays.asList(Ecriture.requete(null, requete, () -> new Object[] {candidat.getId(), competition.getId()}),
+				new Changement(Changement.INSCRIPTION, candidat::getId, competition::getId, operation, null));
+	}
+
+	/**
+	 * Active l'écriture différée : les écritures sont mises en file et
+	 * exécutées en arrière-plan. Sans effet si elle est déjà active.
+	 * @param capacite nombre d'écritures en attente au-delà duquel
+	 * les appels attendent que la file se vide.
+	 */
+
+	public void activerWriteBehind(int capacite)
+	{
+		synchronized (Connect.class)
+		{
+			if (writeBehind == null)
+			{
+				writeBehind = new WriteBehind(capacite);
+				if (arret == null)
+				{
+					arret = new Thread(this::desactiverWriteBehind);
+					Runtime.getRuntime().addShutdownHook(arret);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Exécute les écritures en attente et repasse en écriture immédiate.
+	 */
+
+	public void desactiverWriteBehind()
+	{
+		synchronized (Connect.class)
+		{
+			if (writeBehind != null)
+			{
+				writeBehind.close();
+				writeBehind = null;
+			}
+		}
+	}
+
+	/**
+	 * Attend que toutes les écritures différées déjà soumises soient
+	 * en base. Sans effet en écriture immédiate.
+	 */
+
+	public void flush()
+	{
+		WriteBehind file = writeBehind;
+		if (file != null)
+			file.flush();
+		remarquer();
+		for (ConflitException conflit; (conflit = conflits.poll()) != null; )
+		{
+			Entite entite = conflit.getEntite();
+			try {
+				fusionner(entite instanceof Candidat ? ((Candidat) entite).getInscriptions()
+						: ((Competition) entite).getInscriptions(), entite);
+			} catch (PersistanceException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Rend à un objet les champs d'une modification qui n'a pas été écrite.
+	 * Le thread d'écriture différée ne doit pas prendre le verrou de
+	 * l'inscription : les champs sont donc mis en file, puis de nouveau
+	 * notés modifiés par le prochain thread qui écrit ou attend les
+	 * écritures (voir {@link #remarquer()}).
+	 * @param entite
+	 * @param champs
+	 */
+
+	static void echouee(Entite entite, List<String> champs)
+	{
+		echouees.add(new AbstractMap.SimpleImmutableEntry<>(entite, champs));
+	}
+
+	/**
+	 * Note une modification refusée par le thread d'écriture différée :
+	 * l'objet est relu par le prochain thread qui attend les écritures
+	 * (voir {@link #fusionner(Inscriptions, Entite)}), pour que son
+	 * écriture suivante ne soit pas de nouveau refusée.
+	 * @param conflit
+	 */
+
+	static void refusee(ConflitException conflit)
+	{
+		conflits.add(conflit);
+	}
+
+	private static void remarquer()
+	{
+		for (Map.Entry<Entite, List<String>> echouee; (echouee = echouees.poll()) != null; )
+			for (String champ : echouee.getValue())
+				echouee.getKey().modifier(champ);
+	}
+
+	/**
+	 * Commence une transaction sur le thread courant : les écritures
+	 * suivantes sont retenues jusqu'à {@link #valider()} ou {@link #annuler()}.
+	 */
+
+	public void commencer()
+	{
+		if (transaction.get() != null)
+			throw new IllegalStateException("Transaction déjà commencée");
+		transaction.set(new ArrayList<>());
+	}
+
+	/**
+	 * Écrit en une seule transaction JDBC toutes les écritures retenues
+	 * depuis {@link #commencer()}.
+	 * @throws PersistanceException si la transaction a été annulée par la base.
+	 */
+
+	public void valider()
+	{
+		List<Ecriture> ecritures = transaction.get();
+		if (ecritures == null)
+			throw new IllegalStateException("Aucune transaction commencée");
+		transaction.remove();
+		flush();
+		if (ecritures.isEmpty())
+			return;
+		try (Connection cn = getConnection()) {
+			cn.setAutoCommit(false);
+			executer(cn, ecritures);
+			cn.commit();
+			validees(ecritures);
+		} catch (SQLException e) {
+			throw new PersistanceException("Transaction annulée", e);
+		} finally {
+			terminer(ecritures);
+			remarquer();
+		}
+	}
+
+	/**
+	 * Abandonne les écritures retenues depuis {@link #commencer()}.
+	 */
+
+	public void annuler()
+	{
+		List<Ecriture> ecritures = transaction.get();
+		transaction.remove();
+		if (ecritures != null)
+			terminer(ecritures);
+	}
+
+	/**
+	 * Exécute une écriture tout de suite, ou la retient si une transaction
+	 * est en cours, ou la met en file si l'écriture différée est active.
+	 * @param ecriture
+	 */
+
+	void ecrire(Ecriture ecriture)
+	{
+		List<Ecriture> enCours = transaction.get();
+		WriteBehind file = writeBehind;
+		if (enCours != null)
+			enCours.add(ecriture);
+		else if (file != null)
+			file.soumettre(ecriture);
+		else
+		{
+			try (Connection cn = getConnection()) {
+				ecriture.executer(cn);
+				validees(Collections.singletonList(ecriture));
+			} catch (SQLException e) {
+				e.printStackTrace();
+			} finally {
+				ecriture.terminee();
+				remarquer();
+			}
+		}
+	}
+
+	/**
+	 * Exécute des écritures en une seule transaction, ou les met en file
+	 * si l'écriture différée est active.
+	 * @param ecritures
+	 */
+
+	void ecrire(List<Ecriture> ecritures)
+	{
+		List<Ecriture> enCours = transaction.get();
+		WriteBehind file = writeBehind;
+		if (enCours != null)
+			enCours.addAll(ecritures);
+		else if (file != null)
+		{
+			for (Ecriture ecriture : ecritures)
+				file.soumettre(ecriture);
+		}
+		else if (!ecritures.isEmpty())
+		{
+			try (Connection cn = getConnection()) {
+				cn.setAutoCommit(false);
+				executer(cn, ecritures);
+				cn.commit();
+				validees(ecritures);
+			} catch (SQLException e) {
+				e.printStackTrace();
+			} finally {
+				terminer(ecritures);
+				remarquer();
+			}
+		}
+	}
+
+	/**
+	 * Écrit en une transaction plusieurs écritures d'un même candidat,
+	 * épinglé jusqu'à ce qu'elles soient toutes faites.
+	 * @param candidat
+	 * @param ecritures
+	 */
+
+	private void ecrire(Candidat candidat, Ecriture... ecritures)
+	{
+		IdentityMap identites = IdentityMap.de(candidat.getInscriptions());
+		List<Ecriture> epinglees = new ArrayList<>();
+		for (Ecriture ecriture : ecritures)
+			epinglees.add(Ecriture.epinglee(identites, candidat, ecriture));
+		ecrire(epinglees);
+	}
+
+	/**
+	 * Écrit en une transaction plusieurs écritures d'une même compétition,
+	 * épinglée jusqu'à ce qu'elles soient toutes faites.
+	 * @param competition
+	 * @param ecritures
+	 */
+
+	private void ecrire(Competition competition, Ecriture... ecritures)
+	{
+		IdentityMap identites = IdentityMap.de(competition.getInscriptions());
+		List<Ecriture> epinglees = new ArrayList<>();
+		for (Ecriture ecriture : ecritures)
+			epinglees.add(Ecriture.epinglee(identites, competition, ecriture));
+		ecrire(epinglees);
+	}
+
+	static void terminer(List<Ecriture> ecritures)
+	{
+		for (Ecriture ecriture : ecritures)
+			ecriture.terminee();
+	}
+
+	static void validees(List<Ecriture> ecritures)
+	{
+		Routage.getRoutage().ecrite();
+		for (Ecriture ecriture : ecritures)
+			ecriture.validee();
+	}
+
+	/**
+	 * Exécute des écritures dans l'ordre sur cn. Les écritures consécutives
+	 * d'une même requête groupable partent en un seul lot ; dans une suite
+	 * d'insertions, les lignes sont d'abord regroupées par table (voir
+	 * {@link #INSERTIONS}), pour qu'une création en masse parte en un lot
+	 * par table plutôt qu'en une requête par ligne.
+	 * @param cn
+	 * @param ecritures
+	 * @throws SQLException
+	 */
+
+	static void executer(Connection cn, List<Ecriture> ecritures) throws SQLException
+	{
+		ecritures = regrouper(ecritures);
+		int i = 0;
+		while (i < ecritures.size())
+		{
+			Ecriture ecriture = ecritures.get(i++);
+			String requete = ecriture.getRequete();
+			if (requete == null)
+			{
+				ecriture.executer(cn);
+				continue;
+			}
+			int debut = i - 1;
+			List<Object[]> lignes = new ArrayList<>();
+			lignes.add(ecriture.getParametres());
+			while (i < ecritures.size() && requete.equals(ecritures.get(i).getRequete()))
+				lignes.add(ecritures.get(i++).getParametres());
+			if (lignes.size() == 1)
+				ecriture.executee(executer(cn, requete, lignes.get(0)));
+			else
+			{
+				int[] modifiees = executerLot(cn, requete, lignes);
+				for (int j = 0; j < modifiees.length; j++)
+					ecritures.get(debut + j).executee(modifiees[j]);
+			}
+		}
+	}
+
+	/**
+	 * Trie chaque suite d'insertions consécutives dans l'ordre de
+	 * {@link #INSERTIONS}, et chaque suite de mises à jour consécutives par
+	 * requête : elles ne lisent les valeurs qu'à l'exécution, leur ordre ne
+	 * change donc rien. Le tri est stable : les lignes d'une même table
+	 * restent dans l'ordre où elles ont été écrites.
+	 */
+
+	private static List<Ecriture> regrouper(List<Ecriture> ecritures)
+	{
+		List<Ecriture> regroupees = new ArrayList<>(ecritures);
+		int i = 0;
+		while (i < regroupees.size())
+		{
+			int debut = i;
+			while (i < regroupees.size() && INSERTIONS.contains(regroupees.get(i).getRequete()))
+				i++;
+			if (i - debut > 1)
+				regroupees.subList(debut, i).sort(Comparator.comparingInt(ecriture -> INSERTIONS.indexOf(ecriture.getRequete())));
+			if (i > debut)
+				continue;
+			while (i < regroupees.size() && regroupees.get(i).estModification())
+				i++;
+			if (i - debut > 1)
+				regroupees.subList(debut, i).sort(Comparator.comparing(Ecriture::getRequete,
+						Comparator.nullsLast(Comparator.naturalOrder())));
+			if (i == debut)
+				i++;
+		}
+		return regroupees;
+	}
+
+	/**
+	 * Exécute une requête de mise à jour préparée sur la connexion cn.
+	 * @param cn
+	 * @param requete
+	 * @param parametres
+	 * @return le nombre de lignes modifiées.
+	 * @throws SQLException
+	 */
+
+	static int executer(Connection cn, String requete, Object... parametres) throws SQLException
+	{
+		try (PreparedStatement st = cn.prepareStatement(requete)) {
+			for (int i = 0; i < parametres.length; i++)
+				st.setObject(i + 1, parametres[i]);
+			return st.executeUpdate();
+		}
+	}
+
+	/**
+	 * Exécute une requête pour chaque ligne de paramètres, en un seul lot.
+	 * Le pilote réécrit les INSERT du lot en un seul INSERT multi-lignes
+	 * (rewriteBatchedStatements).
+	 * @param cn
+	 * @param requete
+	 * @param lignes
+	 * @return
+	 * @throws SQLException
+	 */
+
+	static int[] executerLot(Connection cn, String requete, List<Object[]> lignes) throws SQLException
+	{
+		try (PreparedStatement st = cn.prepareStatement(requete)) {
+			for (Object[] parametres : lignes)
+			{
+				for (int i = 0; i < parametres.length; i++)
+					st.setObject(i + 1, parametres[i]);
+				st.addBatch();
+			}
+			return st.executeBatch();
+		}
+	}
+}
@@ -0,0 +1,400 @@
+package bdd;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool de connexions JDBC. Les connexions sont empruntées avec
+ * {@link #getConnection()} et rendues au pool par {@link Connection#close()},
+ * ce qui permet de les utiliser dans un try-with-resources.
+ *
+ * Les connexions inactives sont validées avant d'être prêtées, et celles
+ * inactives depuis plus de {@code inactiviteMax} millisecondes sont fermées
+ * tant que le pool compte plus de {@code min} connexions.
+ *
+ * Chaque connexion garde ses requêtes préparées dans un {@link StatementCache},
+ * prepareStatement() sur une connexion prêtée réutilise donc la requête
+ * déjà préparée sur le serveur.
+ */
+
+public class ConnectionPool
+{
+	private static final String URL = "jdbc:mysql://localhost/competition?autoReconnect=true&useSSL=false"
+			+ "&useServerPrepStmts=true&rewriteBatchedStatements=true";
+	private static ConnectionPool pool;
+
+	private final String url, login, password;
+	private final int min, max, requetesMax;
+	private final long inactiviteMax, attenteMax;
+	private final Deque<Libre> libres = new ArrayDeque<>();
+	private final ScheduledExecutorService nettoyage;
+	private int ouvertes;
+	private boolean ferme;
+
+	static
+	{
+		try
+		{
+			Class.forName("com.mysql.jdbc.Driver");
+		}
+		catch (ClassNotFoundException e)
+		{
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Crée un pool.
+	 * @param url
+	 * @param login
+	 * @param password
+	 * @param min nombre de connexions gardées ouvertes en permanence.
+	 * @param max nombre maximum de connexions ouvertes simultanément.
+	 * @param inactiviteMax durée (ms) au-delà de laquelle une connexion inactive est fermée.
+	 * @param attenteMax durée (ms) d'attente maximale d'une connexion quand le pool est plein.
+	 * @param requetesMax nombre de requêtes préparées gardées par connexion.
+	 */
+
+	public ConnectionPool(String url, String login, String password, int min, int max,
+			long inactiviteMax, long attenteMax, int requetesMax)
+	{
+		if (min < 0 || max < 1 || min > max)
+			throw new IllegalArgumentException("Taille de pool invalide : " + min + ".." + max);
+		this.url = url;
+		this.login = login;
+		this.password = password;
+		this.min = min;
+		this.max = max;
+		this.inactiviteMax = inactiviteMax;
+		this.attenteMax = attenteMax;
+		this.requetesMax = requetesMax;
+		nettoyage = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "ConnectionPool-nettoyage");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long periode = Math.max(1000, inactiviteMax / 2);
+		nettoyage.scheduleWithFixedDelay(this::nettoyer, 0, periode, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Retourne le pool de l'application, configuré par les propriétés système
+	 * bdd.url, bdd.login, bdd.password, bdd.pool.min, bdd.pool.max,
+	 * bdd.pool.inactivite, bdd.pool.attente et bdd.pool.requetes.
+	 * @return
+	 */
+
+	public static synchronized ConnectionPool getPool()
+	{
+		if (pool == null)
+			pool = creer(System.getProperty("bdd.url", URL));
+		return pool;
+	}
+
+	/**
+	 * Crée un pool vers l'url donnée, configuré par les mêmes propriétés
+	 * que celui de l'application, et fermé à l'arrêt de celle-ci.
+	 * @param url
+	 * @return
+	 */
+
+	static ConnectionPool creer(String url)
+	{
+		ConnectionPool pool = new ConnectionPool(url,
+				System.getProperty("bdd.login", "root"),
+				System.getProperty("bdd.password", ""),
+				Integer.getInteger("bdd.pool.min", 2),
+				Integer.getInteger("bdd.pool.max", 10),
+				Long.getLong("bdd.pool.inactivite", 60000L),
+				Long.getLong("bdd.pool.attente", 10000L),
+				Integer.getInteger("bdd.pool.requetes", 64));
+		Runtime.getRuntime().addShutdownHook(new Thread(pool::close));
+		return pool;
+	}
+
+	/**
+	 * Emprunte une connexion au pool. Elle y retourne quand elle est fermée.
+	 * @return
+	 * @throws SQLException si aucune connexion n'est disponible à temps.
+	 */
+
+	public Connection getConnection() throws SQLException
+	{
+		long limite = System.currentTimeMillis() + attenteMax;
+		while (true)
+		{
+			Libre libre;
+			synchronized (this)
+			{
+				if (ferme)
+					throw new SQLException("Pool fermé");
+				libre = libres.pollFirst();
+				if (libre == null)
+				{
+					if (ouvertes < max)
+						ouvertes++;
+					else
+					{
+						long reste = limite - System.currentTimeMillis();
+						if (reste <= 0)
+							throw new SQLException("Aucune connexion disponible après " + attenteMax + " ms");
+						try
+						{
+							wait(reste);
+						}
+						catch (InterruptedException e)
+						{
+							Thread.currentThread().interrupt();
+							throw new SQLException(e);
+						}
+						continue;
+					}
+				}
+			}
+			if (libre == null)
+				return emballer(ouvrir());
+			if (valide(libre.physique.connexion))
+				return emballer(libre.physique);
+			detruire(libre.physique);
+		}
+	}
+
+	/**
+	 * Ferme toutes les connexions inactives et refuse les emprunts suivants.
+	 */
+
+	public void close()
+	{
+		nettoyage.shutdownNow();
+		synchronized (this)
+		{
+			ferme = true;
+			for (Libre libre : libres)
+				libre.physique.fermer();
+			ouvertes -= libres.size();
+			libres.clear();
+			notifyAll();
+		}
+	}
+
+	private Physique ouvrir() throws SQLException
+	{
+		try
+		{
+			return new Physique(DriverManager.getConnection(url, login, password));
+		}
+		catch (SQLException e)
+		{
+			synchronized (this)
+			{
+				ouvertes--;
+				notifyAll();
+			}
+			throw e;
+		}
+	}
+
+	private boolean valide(Connection connexion)
+	{
+		try
+		{
+			return connexion.isValid(2);
+		}
+		catch (SQLException e)
+		{
+			return false;
+		}
+	}
+
+	private void rendre(Physique physique)
+	{
+		Connection connexion = physique.connexion;
+		try
+		{
+			if (connexion.isClosed())
+			{
+				detruire(physique);
+				return;
+			}
+			if (!connexion.getAutoCommit())
+			{
+				connexion.rollback();
+				connexion.setAutoCommit(true);
+			}
+		}
+		catch (SQLException e)
+		{
+			detruire(physique);
+			return;
+		}
+		synchronized (this)
+		{
+			if (!ferme)
+			{
+				libres.addFirst(new Libre(physique));
+				notifyAll();
+				return;
+			}
+		}
+		detruire(physique);
+	}
+
+	private void detruire(Physique physique)
+	{
+		physique.fermer();
+		synchronized (this)
+		{
+			ouvertes--;
+			notifyAll();
+		}
+	}
+
+	/**
+	 * Ferme les connexions inactives depuis trop longtemps et rouvre
+	 * des connexions jusqu'à en avoir au moins {@code min}.
+	 */
+
+	private void nettoyer()
+	{
+		long maintenant = System.currentTimeMillis();
+		int manquantes;
+		synchronized (this)
+		{
+			Iterator<Libre> it = libres.descendingIterator();
+			while (it.hasNext() && ouvertes > min)
+			{
+				Libre libre = it.next();
+				if (maintenant - libre.depuis < inactiviteMax)
+					break;
+				it.remove();
+				ouvertes--;
+				libre.physique.fermer();
+			}
+			manquantes = ferme ? 0 : min - ouvertes;
+			ouvertes += Math.max(0, manquantes);
+		}
+		for (int i = 0; i < manquantes; i++)
+		{
+			try
+			{
+				rendre(ouvrir());
+			}
+			catch (SQLException e)
+			{
+				synchronized (this)
+				{
+					ouvertes -= manquantes - i - 1;
+				}
+				return;
+			}
+		}
+	}
+
+	private Connection emballer(Physique physique)
+	{
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] {Connection.class}, new Pretee(physique));
+	}
+
+	/**
+	 * Connexion ouverte sur le serveur et son cache de requêtes.
+	 */
+
+	private class Physique
+	{
+		final Connection connexion;
+		final StatementCache requetes;
+
+		Physique(Connection connexion)
+		{
+			this.connexion = connexion;
+			this.requetes = new StatementCache(connexion, requetesMax);
+		}
+
+		void fermer()
+		{
+			requetes.fermer();
+			try
+			{
+				connexion.close();
+			}
+			catch (SQLException e) {}
+		}
+	}
+
+	private static class Libre
+	{
+		final Physique physique;
+		final long depuis = System.currentTimeMillis();
+
+		Libre(Physique physique)
+		{
+			this.physique = physique;
+		}
+	}
+
+	/**
+	 * Connexion prêtée : close() la rend au pool au lieu de la fermer,
+	 * prepareStatement() passe par le cache de la connexion.
+	 */
+
+	private class Pretee implements InvocationHandler
+	{
+		private Physique physique;
+
+		Pretee(Physique physique)
+		{
+			this.physique = physique;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+		{
+			switch (method.getName())
+			{
+			case "close":
+				if (physique != null)
+				{
+					Physique rendue = physique;
+					physique = null;
+					rendre(rendue);
+				}
+				return null;
+			case "isClosed":
+				return physique == null || physique.connexion.isClosed();
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "Pretee[" + physique + "]";
+			}
+			if (physique == null)
+				throw new SQLException("Connexion déjà rendue au pool");
+			if (method.getName().equals("prepareStatement") && args.length <= 2
+					&& (args.length == 1 || args[1] instanceof Integer))
+				return physique.requetes.preparer((String) args[0],
+						args.length == 1 ? Statement.NO_GENERATED_KEYS : (Integer) args[1], (Connection) proxy);
+			try
+			{
+				return method.invoke(physique.connexion, args);
+			}
+			catch (InvocationTargetException e)
+			{
+				throw e.getCause();
+			}
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package bdd;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Parcours d'une requête ligne par ligne. Le serveur envoie les lignes au
+ * fur et à mesure qu'elles sont lues, au lieu de tout le résultat d'un coup :
+ * la mémoire utilisée ne dépend pas de la taille de la table, et le serveur
+ * n'envoie pas plus vite que {@link #next()} ne lit.
+ *
+ * Le curseur garde une connexion du pool jusqu'à sa fermeture, qui a lieu
+ * à la fin du parcours ou par {@link #close()} : il s'utilise dans un
+ * try-with-resources.
+ * @param <T> le type des objets lus.
+ */
+
+public class Curseur<T> implements Iterator<T>, AutoCloseable
+{
+	/**
+	 * Construit un objet à partir de la ligne courante.
+	 */
+
+	@FunctionalInterface
+	interface Lecture<T>
+	{
+		T lire(ResultSet result) throws SQLException;
+	}
+
+	private final Lecture<T> lecture;
+	private Connection cn;
+	private PreparedStatement st;
+	private ResultSet result;
+	private Boolean suivant;
+
+	Curseur(String requete, Lecture<T> lecture, Object... parametres) throws SQLException
+	{
+		this(Connect.getConnection(), requete, lecture, parametres);
+	}
+
+	/**
+	 * Parcourt la requête sur la connexion donnée, fermée avec le curseur.
+	 * @param cn
+	 * @param requete
+	 * @param lecture
+	 * @param parametres
+	 * @throws SQLException
+	 */
+
+	Curseur(Connection cn, String requete, Lecture<T> lecture, Object... parametres) throws SQLException
+	{
+		this.lecture = lecture;
+		this.cn = cn;
+		try
+		{
+			st = cn.prepareStatement(requete, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			st.setFetchSize(Integer.MIN_VALUE);
+			for (int i = 0; i < parametres.length; i++)
+				st.setObject(i + 1, parametres[i]);
+			result = st.executeQuery();
+		}
+		catch (SQLException e)
+		{
+			close();
+			throw e;
+		}
+	}
+
+	@Override
+	public boolean hasNext()
+	{
+		if (suivant == null)
+		{
+			if (result == null)
+				return false;
+			try
+			{
+				suivant = result.next();
+			}
+			catch (SQLException e)
+			{
+				close();
+				throw new PersistanceException(e);
+			}
+			if (!suivant)
+				close();
+		}
+		return suivant;
+	}
+
+	@Override
+	public T next()
+	{
+		if (!hasNext())
+			throw new NoSuchElementException();
+		suivant = null;
+		try
+		{
+			return lecture.lire(result);
+		}
+		catch (SQLException e)
+		{
+			close();
+			throw new PersistanceException(e);
+		}
+	}
+
+	/**
+	 * Abandonne le parcours et rend la connexion au pool.
+	 */
+
+	@Override
+	public void close()
+	{
+		suivant = false;
+		fermer(result);
+		fermer(st);
+		fermer(cn);
+		result = null;
+		st = null;
+		cn = null;
+	}
+
+	private static void fermer(AutoCloseable ressource)
+	{
+		if (ressource == null)
+			return;
+		try
+		{
+			ressource.close();
+		}
+		catch (Exception e)
+		{
+			e.printStackTrace();
+		}
+	}
+}
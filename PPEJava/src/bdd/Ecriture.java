@@ -0,0 +1,185 @@
+package bdd;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Supplier;
+
+/**
+ * Écriture en base, exécutée tout de suite ou plus tard (écriture différée).
+ * Elle lit l'état des objets au moment où elle est exécutée, pas au moment
+ * où elle est créée : une inscription écrite après l'insertion du candidat
+ * utilise donc l'id attribué par cette insertion.
+ */
+
+interface Ecriture
+{
+	void executer(Connection cn) throws SQLException;
+
+	/**
+	 * Retourne la clé de fusion de l'écriture : une écriture en attente
+	 * de même clé n'est exécutée qu'une fois. null si elle ne fusionne pas.
+	 * @return
+	 */
+
+	default Object getCle()
+	{
+		return null;
+	}
+
+	/**
+	 * Retourne la requête de l'écriture si elle peut être groupée en lot
+	 * avec les écritures consécutives de même requête, null sinon.
+	 * @return
+	 */
+
+	default String getRequete()
+	{
+		return null;
+	}
+
+	default Object[] getParametres()
+	{
+		return null;
+	}
+
+	/**
+	 * Vrai pour une mise à jour de colonnes d'un objet, qui peut être
+	 * réordonnée avec les mises à jour voisines (voir {@link Modification}).
+	 * @return
+	 */
+
+	default boolean estModification()
+	{
+		return false;
+	}
+
+	/**
+	 * Appelée après l'exécution de la requête de l'écriture, groupée ou non
+	 * en lot.
+	 * @param lignes nombre de lignes modifiées, ou Statement.SUCCESS_NO_INFO.
+	 * @throws PersistanceException pour refuser le résultat et annuler la transaction.
+	 */
+
+	default void executee(int lignes)
+	{
+	}
+
+	/**
+	 * Appelée une fois la transaction de l'écriture validée.
+	 */
+
+	default void validee()
+	{
+	}
+
+	/**
+	 * Appelée une fois l'écriture exécutée, en échec ou abandonnée.
+	 */
+
+	default void terminee()
+	{
+	}
+
+	/**
+	 * Épingle une entité dans le cache jusqu'à ce que l'écriture soit
+	 * terminée : une entité modifiée n'est jamais évincée avant d'être écrite.
+	 * @param identites
+	 * @param entite
+	 * @param ecriture
+	 * @return
+	 */
+
+	static Ecriture epinglee(IdentityMap identites, Object entite, Ecriture ecriture)
+	{
+		identites.epingler(entite);
+		return new Ecriture()
+		{
+			@Override
+			public void executer(Connection cn) throws SQLException
+			{
+				ecriture.executer(cn);
+			}
+
+			@Override
+			public Object getCle()
+			{
+				return ecriture.getCle();
+			}
+
+			@Override
+			public String getRequete()
+			{
+				return ecriture.getRequete();
+			}
+
+			@Override
+			public Object[] getParametres()
+			{
+				return ecriture.getParametres();
+			}
+
+			@Override
+			public boolean estModification()
+			{
+				return ecriture.estModification();
+			}
+
+			@Override
+			public void executee(int lignes)
+			{
+				ecriture.executee(lignes);
+			}
+
+			@Override
+			public void validee()
+			{
+				ecriture.validee();
+			}
+
+			@Override
+			public void terminee()
+			{
+				ecriture.terminee();
+				identites.liberer(entite);
+			}
+		};
+	}
+
+	/**
+	 * Crée une écriture d'une seule requête, groupable en lot.
+	 * @param cle clé de fusion, ou null.
+	 * @param requete
+	 * @param parametres évalués à l'exécution.
+	 * @return
+	 */
+
+	static Ecriture requete(Object cle, String requete, Supplier<Object[]> parametres)
+	{
+		return new Ecriture()
+		{
+			@Override
+			public void executer(Connection cn) throws SQLException
+			{
+				Connect.executer(cn, requete, getParametres());
+			}
+
+			@Override
+			public Object getCle()
+			{
+				return cle;
+			}
+
+			@Override
+			public String getRequete()
+			{
+				return requete;
+			}
+
+			@Override
+			public Object[] getParametres()
+			{
+				return parametres.get();
+			}
+		};
+	}
+}
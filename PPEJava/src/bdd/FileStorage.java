@@ -0,0 +1,572 @@
+package bdd;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import inscriptions.Candidat;
+import inscriptions.Competition;
+import inscriptions.Equipe;
+import inscriptions.Inscriptions;
+import inscriptions.Memoire;
+import inscriptions.Personne;
+
+/**
+ * Stockage dans des fichiers, sans base : chaque modification est ajoutée
+ * à un {@link Journal} au lieu de réécrire tout Inscriptions.srz. Le journal
+ * garde une entrée par personne, équipe et compétition, et deux par
+ * appartenance à une équipe ou inscription à une compétition, une pour
+ * chaque sens du lien.
+ *
+ * Rien n'est lu à l'ouverture : un objet n'est décodé et ajouté à
+ * l'inscription que lorsqu'il est demandé par son id, par une liste
+ * complète ou par le chargement d'une association, comme avec la base.
+ *
+ * Une écriture ne revient qu'une fois sur disque, sauf en écriture différée
+ * où seul {@link #flush()} attend. Les écritures d'une transaction sont
+ * ajoutées au journal en un seul bloc à sa validation.
+ */
+
+public class FileStorage extends MemoryStorage
+{
+	private static final String PERSONNE = "P", EQUIPE = "E", COMPETITION = "C",
+			EQUIPES = "M", MEMBRES = "R", COMPETITIONS = "I", CANDIDATS = "K",
+			DERNIER_CANDIDAT = "#candidat", DERNIERE_COMPETITION = "#competition";
+
+	private final Journal journal;
+	private final Thread arret;
+	private final ThreadLocal<List<Journal.Entree>> transaction = new ThreadLocal<>();
+	private final Set<String> lus = ConcurrentHashMap.newKeySet();
+	private volatile boolean differe;
+
+	/**
+	 * Ouvre le journal Inscriptions du dossier courant. Un instantané est
+	 * écrit toutes les bdd.journal.seuil entrées, 10000 par défaut.
+	 */
+
+	public FileStorage()
+	{
+		this(Paths.get(""), "Inscriptions", Integer.getInteger("bdd.journal.seuil", 10000));
+	}
+
+	/**
+	 * Ouvre le journal {@code nom} du dossier.
+	 * @param dossier
+	 * @param nom préfixe des fichiers du journal.
+	 * @param seuil nombre d'entrées journalisées entre deux instantanés.
+	 * @throws PersistanceException si le journal ne peut pas être relu.
+	 */
+
+	public FileStorage(Path dossier, String nom, int seuil)
+	{
+		try
+		{
+			journal = new Journal(dossier, nom, seuil);
+		}
+		catch (IOException e)
+		{
+			throw new PersistanceException("Lecture du journal impossible", e);
+		}
+		arret = new Thread(journal::close);
+		Runtime.getRuntime().addShutdownHook(arret);
+	}
+
+	/**
+	 * Reprend les ids là où le journal les a laissés, sans rien décoder.
+	 */
+
+	@Override
+	public void ouvrir(Inscriptions inscription, Memoire memoire)
+	{
+		reprendre(dernier(DERNIER_CANDIDAT), dernier(DERNIERE_COMPETITION));
+	}
+
+	private int dernier(String compteur)
+	{
+		byte[] valeur = journal.lire(compteur);
+		return valeur == null ? 0 : ByteBuffer.wrap(valeur).getInt();
+	}
+
+	/**
+	 * Écrit ce qui est en attente et ferme le journal.
+	 */
+
+	public void close()
+	{
+		journal.close();
+		try
+		{
+			Runtime.getRuntime().removeShutdownHook(arret);
+		}
+		catch (IllegalStateException e)
+		{
+		}
+	}
+
+	@Override
+	public synchronized Personne personne(Inscriptions inscription, int id)
+	{
+		Personne personne = super.personne(inscription, id);
+		if (personne == null && lus.add(PERSONNE + id))
+			personne = personne(inscription, id, journal.lire(PERSONNE + id));
+		return personne;
+	}
+
+	@Override
+	public synchronized Equipe equipe(Inscriptions inscription, int id)
+	{
+		Equipe equipe = super.equipe(inscription, id);
+		if (equipe == null && lus.add(EQUIPE + id))
+			equipe = equipe(inscription, id, journal.lire(EQUIPE + id));
+		return equipe;
+	}
+
+	@Override
+	public synchronized Competition competition(Inscriptions inscription, int id)
+	{
+		Competition competition = super.competition(inscription, id);
+		if (competition == null && lus.add(COMPETITION + id))
+			competition = competition(inscription, id, journal.lire(COMPETITION + id));
+		return competition;
+	}
+
+	private Candidat candidat(Inscriptions inscription, int id)
+	{
+		Candidat candidat = personne(inscription, id);
+		return candidat != null ? candidat : equipe(inscription, id);
+	}
+
+	/**
+	 * Décode toutes les personnes au premier appel.
+	 */
+
+	@Override
+	public Timestamp personnesModifiees(Inscriptions inscription, Timestamp depuis)
+	{
+		if (depuis == null)
+			toutLire(inscription, PERSONNE);
+		return new Timestamp(System.currentTimeMillis());
+	}
+
+	/**
+	 * Décode toutes les équipes au premier appel.
+	 */
+
+	@Override
+	public Timestamp equipesModifiees(Inscriptions inscription, Timestamp depuis)
+	{
+		if (depuis == null)
+			toutLire(inscription, EQUIPE);
+		return new Timestamp(System.currentTimeMillis());
+	}
+
+	@Override
+	public void chargerTout(Inscriptions inscription)
+	{
+		toutLire(inscription, PERSONNE);
+		toutLire(inscription, EQUIPE);
+		toutLire(inscription, COMPETITION);
+	}
+
+	private synchronized void toutLire(Inscriptions inscription, String type)
+	{
+		if (!lus.add(type))
+			return;
+		for (Map.Entry<String, byte[]> entree : journal.parcourir(type).entrySet())
+		{
+			if (!lus.add(entree.getKey()))
+				continue;
+			int id = Integer.parseInt(entree.getKey().substring(type.length()));
+			if (type.equals(PERSONNE))
+				personne(inscription, id, entree.getValue());
+			else if (type.equals(EQUIPE))
+				equipe(inscription, id, entree.getValue());
+			else
+				competition(inscription, id, entree.getValue());
+		}
+	}
+
+	@Override
+	public void chargerCompetitions(Candidat candidat)
+	{
+		for (int id : lies(COMPETITIONS, candidat.getId()))
+		{
+			Competition competition = competition(candidat.getInscriptions(), id);
+			if (competition != null)
+				competition.add(candidat, false);
+		}
+	}
+
+	@Override
+	public void chargerCandidats(Competition competition)
+	{
+		for (int id : lies(CANDIDATS, competition.getId()))
+		{
+			Candidat candidat = candidat(competition.getInscriptions(), id);
+			if (candidat != null)
+				competition.add(candidat, false);
+		}
+	}
+
+	@Override
+	public void chargerMembres(Equipe equipe)
+	{
+		for (int id : lies(MEMBRES, equipe.getId()))
+		{
+			Personne membre = personne(equipe.getInscriptions(), id);
+			if (membre != null)
+				equipe.add(membre, false);
+		}
+	}
+
+	@Override
+	public void chargerEquipes(Personne personne)
+	{
+		for (int id : lies(EQUIPES, personne.getId()))
+		{
+			Equipe equipe = equipe(personne.getInscriptions(), id);
+			if (equipe != null)
+				equipe.add(personne, false);
+		}
+	}
+
+	/**
+	 * Retourne au premier appel pour cette association et cet objet les
+	 * ids des objets qui lui sont liés, rien aux suivants.
+	 */
+
+	private List<Integer> lies(String association, int id)
+	{
+		List<Integer> ids = new ArrayList<>();
+		String prefixe = association + id + ":";
+		if (id == 0 || !lus.add(prefixe))
+			return ids;
+		flush();
+		for (String cle : journal.parcourir(prefixe).keySet())
+			ids.add(Integer.parseInt(cle.substring(prefixe.length())));
+		return ids;
+	}
+
+	private Personne personne(Inscriptions inscription, int id, byte[] valeur)
+	{
+		if (valeur == null)
+			return null;
+		DataInputStream lecture = new DataInputStream(new ByteArrayInputStream(valeur));
+		try
+		{
+			Personne personne = inscription.createPersonne(lireTexte(lecture), lireTexte(lecture), lireTexte(lecture), false);
+			personne.setId(id);
+			indexer(personne);
+			return personne;
+		}
+		catch (IOException e)
+		{
+			throw new PersistanceException("Journal illisible", e);
+		}
+	}
+
+	private Equipe equipe(Inscriptions inscription, int id, byte[] valeur)
+	{
+		if (valeur == null)
+			return null;
+		DataInputStream lecture = new DataInputStream(new ByteArrayInputStream(valeur));
+		try
+		{
+			Equipe equipe = inscription.createEquipe(lireTexte(lecture), false);
+			equipe.setId(id);
+			indexer(equipe);
+			return equipe;
+		}
+		catch (IOException e)
+		{
+			throw new PersistanceException("Journal illisible", e);
+		}
+	}
+
+	private Competition competition(Inscriptions inscription, int id, byte[] valeur)
+	{
+		if (valeur == null)
+			return null;
+		DataInputStream lecture = new DataInputStream(new ByteArrayInputStream(valeur));
+		try
+		{
+			String nom = lireTexte(lecture);
+			long jour = lecture.readLong();
+			Competition competition = inscription.createCompetition(nom,
+					jour == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(jour), lecture.readBoolean(), false);
+			competition.setId(id);
+			indexer(competition);
+			return competition;
+		}
+		catch (IOException e)
+		{
+			throw new PersistanceException("Journal illisible", e);
+		}
+	}
+
+	@Override
+	public void save(Personne personne)
+	{
+		super.save(personne);
+		lus.add(PERSONNE + personne.getId());
+		journaliser(Arrays.asList(entree(personne), dernier(DERNIER_CANDIDAT, personne.getId())));
+	}
+
+	@Override
+	public void save(Equipe equipe)
+	{
+		super.save(equipe);
+		lus.add(EQUIPE + equipe.getId());
+		journaliser(Arrays.asList(entree(equipe), dernier(DERNIER_CANDIDAT, equipe.getId())));
+	}
+
+	@Override
+	public void save(Competition competition)
+	{
+		super.save(competition);
+		lus.add(COMPETITION + competition.getId());
+		journaliser(Arrays.asList(entree(competition), dernier(DERNIERE_COMPETITION, competition.getId())));
+	}
+
+	@Override
+	public void save(Personne personne, Equipe equipe)
+	{
+		journaliser(membre(personne, equipe, true));
+	}
+
+	@Override
+	public void save(Candidat candidat, Competition competition)
+	{
+		journaliser(inscrit(candidat, competition, true));
+	}
+
+	@Override
+	public void save(Collection<Personne> membres, Equipe equipe)
+	{
+		List<Journal.Entree> entrees = new ArrayList<>();
+		for (Personne membre : membres)
+			entrees.addAll(membre(membre, equipe, true));
+		journaliser(entrees);
+	}
+
+	@Override
+	public void save(Collection<? extends Candidat> candidats, Competition competition)
+	{
+		List<Journal.Entree> entrees = new ArrayList<>();
+		for (Candidat candidat : candidats)
+			entrees.addAll(inscrit(candidat, competition, true));
+		journaliser(entrees);
+	}
+
+	/**
+	 * Journalise l'objet entier, s'il a été modifié depuis sa dernière
+	 * écriture.
+	 */
+
+	@Override
+	public void update(Personne personne)
+	{
+		if (!personne.extraireModifications().isEmpty())
+			journaliser(entree(personne));
+	}
+
+	@Override
+	public void update(Equipe equipe)
+	{
+		if (!equipe.extraireModifications().isEmpty())
+			journaliser(entree(equipe));
+	}
+
+	@Override
+	public void update(Competition competition)
+	{
+		if (!competition.extraireModifications().isEmpty())
+			journaliser(entree(competition));
+	}
+
+	@Override
+	public void delete(Personne personne)
+	{
+		super.delete(personne);
+		journaliser(new Journal.Entree(PERSONNE + personne.getId(), null));
+	}
+
+	@Override
+	public void delete(Equipe equipe)
+	{
+		super.delete(equipe);
+		journaliser(new Journal.Entree(EQUIPE + equipe.getId(), null));
+	}
+
+	@Override
+	public void delete(Competition competition)
+	{
+		super.delete(competition);
+		journaliser(new Journal.Entree(COMPETITION + competition.getId(), null));
+	}
+
+	@Override
+	public void delete(Personne personne, Equipe equipe)
+	{
+		journaliser(membre(personne, equipe, false));
+	}
+
+	@Override
+	public void delete(Candidat candidat, Competition competition)
+	{
+		journaliser(inscrit(candidat, competition, false));
+	}
+
+	@Override
+	public void commencer()
+	{
+		transaction.set(new ArrayList<>());
+	}
+
+	@Override
+	public void valider()
+	{
+		List<Journal.Entree> entrees = transaction.get();
+		transaction.remove();
+		if (entrees != null)
+			journal.ajouter(entrees, !differe);
+	}
+
+	@Override
+	public void annuler()
+	{
+		transaction.remove();
+	}
+
+	/**
+	 * Les écritures reviennent sans attendre le disque. Le journal n'a pas
+	 * de limite de file : capacite est ignorée.
+	 */
+
+	@Override
+	public void activerWriteBehind(int capacite)
+	{
+		differe = true;
+	}
+
+	@Override
+	public void desactiverWriteBehind()
+	{
+		differe = false;
+		journal.flush();
+	}
+
+	@Override
+	public void flush()
+	{
+		journal.flush();
+	}
+
+	private void journaliser(Journal.Entree entree)
+	{
+		journaliser(Collections.singletonList(entree));
+	}
+
+	private void journaliser(List<Journal.Entree> entrees)
+	{
+		List<Journal.Entree> enCours = transaction.get();
+		if (enCours != null)
+			enCours.addAll(entrees);
+		else
+			journal.ajouter(entrees, !differe);
+	}
+
+	private static Journal.Entree entree(Personne personne)
+	{
+		return new Journal.Entree(PERSONNE + personne.getId(), valeur(sortie -> {
+			ecrireTexte(sortie, personne.getNom());
+			ecrireTexte(sortie, personne.getPrenom());
+			ecrireTexte(sortie, personne.getMail());
+		}));
+	}
+
+	private static Journal.Entree entree(Equipe equipe)
+	{
+		return new Journal.Entree(EQUIPE + equipe.getId(), valeur(sortie -> ecrireTexte(sortie, equipe.getNom())));
+	}
+
+	private static Journal.Entree entree(Competition competition)
+	{
+		return new Journal.Entree(COMPETITION + competition.getId(), valeur(sortie -> {
+			ecrireTexte(sortie, competition.getNom());
+			LocalDate date = competition.getDateCloture();
+			sortie.writeLong(date == null ? Long.MIN_VALUE : date.toEpochDay());
+			sortie.writeBoolean(competition.estEnEquipe());
+		}));
+	}
+
+	private static List<Journal.Entree> membre(Personne personne, Equipe equipe, boolean present)
+	{
+		return Arrays.asList(lien(EQUIPES, personne.getId(), equipe.getId(), present),
+				lien(MEMBRES, equipe.getId(), personne.getId(), present));
+	}
+
+	private static List<Journal.Entree> inscrit(Candidat candidat, Competition competition, boolean present)
+	{
+		return Arrays.asList(lien(COMPETITIONS, candidat.getId(), competition.getId(), present),
+				lien(CANDIDATS, competition.getId(), candidat.getId(), present));
+	}
+
+	private static Journal.Entree lien(String association, int id, int idLie, boolean present)
+	{
+		return new Journal.Entree(association + id + ":" + idLie, present ? new byte[0] : null);
+	}
+
+	private static Journal.Entree dernier(String compteur, int id)
+	{
+		return new Journal.Entree(compteur, ByteBuffer.allocate(4).putInt(id).array());
+	}
+
+	@FunctionalInterface
+	private interface Valeur
+	{
+		void ecrire(DataOutputStream sortie) throws IOException;
+	}
+
+	private static byte[] valeur(Valeur valeur)
+	{
+		ByteArrayOutputStream octets = new ByteArrayOutputStream();
+		try
+		{
+			valeur.ecrire(new DataOutputStream(octets));
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+		return octets.toByteArray();
+	}
+
+	private static void ecrireTexte(DataOutputStream sortie, String texte) throws IOException
+	{
+		sortie.writeBoolean(texte != null);
+		if (texte != null)
+			sortie.writeUTF(texte);
+	}
+
+	private static String lireTexte(DataInputStream entree) throws IOException
+	{
+		return entree.readBoolean() ? entree.readUTF() : null;
+	}
+}
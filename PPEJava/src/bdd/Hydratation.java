@@ -0,0 +1,225 @@
+package bdd;
+
+import static bdd.Requetes.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
+
+import inscriptions.Candidat;
+import inscriptions.Competition;
+import inscriptions.Equipe;
+import inscriptions.Inscriptions;
+import inscriptions.Personne;
+
+/**
+ * Relie les objets déjà chargés dans une {@link Inscriptions} à partir
+ * des tables de liaison toequipe et tocompetition.
+ *
+ * Chaque table de liaison est parcourue une seule fois : chaque ligne est
+ * résolue par deux accès à l'{@link IdentityMap}, sans nouvelle requête.
+ *
+ * {@link #hydrater(StorageEngine.Progression)} charge toute la base : les
+ * tables personne, equipe et competition sont lues en parallèle, chacune
+ * sur sa connexion du pool, puis les deux tables de liaison de même une
+ * fois tous les objets chargés. Seules les requêtes sont parallèles : les
+ * lignes lues sont appliquées à l'inscription sur le thread appelant, dans
+ * l'ordre où les tables arrivent, l'inscription n'étant pas thread-safe.
+ */
+
+class Hydratation
+{
+	private static final int ETAPES = 5;
+
+	private final Inscriptions inscription;
+	private final IdentityMap identites;
+	private Timestamp personnesLues, equipesLues;
+
+	Hydratation(Inscriptions inscription)
+	{
+		this.inscription = inscription;
+		identites = IdentityMap.de(inscription);
+	}
+
+	/**
+	 * Charge toutes les personnes, équipes et compétitions puis leurs liens.
+	 * @param progression appelée après chacune des cinq tables.
+	 * @throws SQLException
+	 */
+
+	void hydrater(StorageEngine.Progression progression) throws SQLException
+	{
+		ExecutorService lecteurs = Executors.newFixedThreadPool(3, tache -> {
+			Thread lecteur = new Thread(tache, "Hydratation");
+			lecteur.setDaemon(true);
+			return lecteur;
+		});
+		try
+		{
+			CompletionService<Table> tables = new ExecutorCompletionService<>(lecteurs);
+			tables.submit(lire("personnes", SELECT_PERSONNE_DEPUIS, new Timestamp(0)));
+			tables.submit(lire("équipes", SELECT_EQUIPE_DEPUIS, new Timestamp(0)));
+			tables.submit(lire("compétitions", SELECT_COMPETITION));
+			int faites = 0;
+			for (int i = 0; i < 3; i++)
+			{
+				Table table = recevoir(tables);
+				try (CachedRowSet lignes = table.lignes) {
+					if (table.requete.equals(SELECT_PERSONNE_DEPUIS))
+						personnesLues = appliquer(lignes, "id_personne", result -> Connect.personne(inscription, result, true));
+					else if (table.requete.equals(SELECT_EQUIPE_DEPUIS))
+						equipesLues = appliquer(lignes, "id_equipe", result -> Connect.equipe(inscription, result));
+					else
+						while (lignes.next())
+							Connect.competition(inscription, lignes);
+				}
+				progression.avancer(table.nom, ++faites, ETAPES);
+			}
+			tables.submit(lire("membres des équipes", SELECT_TOEQUIPE));
+			tables.submit(lire("inscriptions aux compétitions", SELECT_TOCOMPETITION));
+			for (int i = 0; i < 2; i++)
+			{
+				Table table = recevoir(tables);
+				try (CachedRowSet lignes = table.lignes) {
+					if (table.requete.equals(SELECT_TOEQUIPE))
+						lierEquipes(lignes);
+					else
+						lierCompetitions(lignes);
+				}
+				progression.avancer(table.nom, ++faites, ETAPES);
+			}
+		}
+		finally
+		{
+			lecteurs.shutdownNow();
+		}
+	}
+
+	/**
+	 * Retourne la date de la dernière personne lue par {@link #hydrater}.
+	 * @return
+	 */
+
+	Timestamp getPersonnesLues()
+	{
+		return personnesLues;
+	}
+
+	Timestamp getEquipesLues()
+	{
+		return equipesLues;
+	}
+
+	private Timestamp appliquer(ResultSet lignes, String colonneId,
+			Curseur.Lecture<? extends Candidat> lecture) throws SQLException
+	{
+		Timestamp derniere = null;
+		while (lignes.next())
+		{
+			Timestamp date = lignes.getTimestamp("updated_at");
+			if (derniere == null || date.after(derniere))
+				derniere = date;
+			Connect.appliquer(inscription, lignes, colonneId, lecture);
+		}
+		return derniere;
+	}
+
+	/**
+	 * Une table lue en entier, détachée de sa connexion.
+	 */
+
+	private static class Table
+	{
+		final String nom, requete;
+		final CachedRowSet lignes;
+
+		Table(String nom, String requete, CachedRowSet lignes)
+		{
+			this.nom = nom;
+			this.requete = requete;
+			this.lignes = lignes;
+		}
+	}
+
+	private static Callable<Table> lire(String nom, String requete, Object... parametres)
+	{
+		return () -> {
+			try (Connection cn = Connect.getConnection();
+					PreparedStatement st = cn.prepareStatement(requete)) {
+				for (int i = 0; i < parametres.length; i++)
+					st.setObject(i + 1, parametres[i]);
+				try (ResultSet result = st.executeQuery()) {
+					CachedRowSet lignes = RowSetProvider.newFactory().createCachedRowSet();
+					lignes.populate(result);
+					return new Table(nom, requete, lignes);
+				}
+			}
+		};
+	}
+
+	private static Table recevoir(CompletionService<Table> tables) throws SQLException
+	{
+		try
+		{
+			return tables.take().get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new SQLException("Chargement interrompu", e);
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof SQLException)
+				throw (SQLException) e.getCause();
+			throw new PersistanceException(e.getCause());
+		}
+	}
+
+	private int lierEquipes(ResultSet result) throws SQLException
+	{
+		int liens = 0;
+		while (result.next())
+		{
+			Candidat equipe = identites.candidat(result.getInt("id_equipe"));
+			Candidat personne = identites.candidat(result.getInt("id_personne"));
+			if (equipe instanceof Equipe && personne instanceof Personne)
+			{
+				((Equipe) equipe).add((Personne) personne, false);
+				liens++;
+			}
+		}
+		identites.charges(IdentityMap.MEMBRES);
+		identites.charges(IdentityMap.EQUIPES);
+		return liens;
+	}
+
+	private int lierCompetitions(ResultSet result) throws SQLException
+	{
+		int liens = 0;
+		while (result.next())
+		{
+			Competition competition = identites.competition(result.getInt("id_competition"));
+			Candidat candidat = identites.candidat(result.getInt("id_candidat"));
+			if (competition != null && candidat != null)
+			{
+				competition.add(candidat, false);
+				liens++;
+			}
+		}
+		identites.charges(IdentityMap.COMPETITIONS);
+		identites.charges(IdentityMap.CANDIDATS);
+		return liens;
+	}
+}
@@ -0,0 +1,267 @@
+package bdd;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import inscriptions.Candidat;
+import inscriptions.Competition;
+import inscriptions.Entite;
+import inscriptions.Equipe;
+import inscriptions.Inscriptions;
+import inscriptions.Memoire;
+import inscriptions.Personne;
+
+/**
+ * Objets déjà chargés d'une {@link Inscriptions}, par id. Une ligne lue
+ * en base n'est transformée en objet que si son id n'y est pas encore :
+ * les lectures suivantes mettent à jour l'objet existant.
+ *
+ * Les candidats et compétitions créés par l'application y sont ajoutés
+ * dès que leur insertion leur a donné un id, et retirés à leur suppression.
+ *
+ * Avec une capacité, les objets les moins récemment utilisés au-delà de
+ * {@code capacite} candidats ou compétitions sont évincés, sauf ceux
+ * modifiés pas encore écrits ou épinglés par une écriture pas encore
+ * terminée : une modification n'est jamais perdue avec l'objet, ni
+ * écrite sur un doublon relu plus tard. Un objet évincé n'est
+ * retiré que de l'index et des ensembles de l'inscription : les
+ * associations qui le référencent restent valides.
+ *
+ * Les associations (compétitions d'un candidat, candidats d'une compétition,
+ * membres d'une équipe, équipes d'une personne) des objets lus en base ne
+ * sont pas chargées avec eux : l'index garde les objets dont chaque
+ * association reste à lire, pour les lire par lots à la première demande.
+ */
+
+class IdentityMap
+{
+	static final int COMPETITIONS = 0, CANDIDATS = 1, MEMBRES = 2, EQUIPES = 3;
+	private static final Map<Inscriptions, IdentityMap> identites =
+			Collections.synchronizedMap(new WeakHashMap<>());
+
+	private final Map<Integer, Candidat> candidats = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<Integer, Competition> competitions = new LinkedHashMap<>(16, 0.75f, true);
+	private final Map<Object, Integer> epingles = new IdentityHashMap<>();
+	private final List<Set<Object>> aCharger = new ArrayList<>();
+	private Memoire memoire;
+	private int capacite;
+	private boolean hydratee;
+
+	private IdentityMap(Inscriptions inscription)
+	{
+		for (int i = COMPETITIONS; i <= EQUIPES; i++)
+			aCharger.add(new LinkedHashSet<>());
+		for (Candidat candidat : inscription.getCandidats())
+			if (candidat.getId() != 0)
+				candidats.put(candidat.getId(), candidat);
+		for (Competition competition : inscription.getCompetitions())
+			if (competition.getId() != 0)
+				competitions.put(competition.getId(), competition);
+	}
+
+	/**
+	 * Retourne les objets chargés de l'inscription. Les objets déjà en
+	 * mémoire (relus depuis le fichier de sauvegarde par exemple) y sont
+	 * indexés à la première demande.
+	 * @param inscription
+	 * @return
+	 */
+
+	static IdentityMap de(Inscriptions inscription)
+	{
+		return identites.computeIfAbsent(inscription, IdentityMap::new);
+	}
+
+	/**
+	 * Retient l'accès à la mémoire de l'inscription, donné à l'ouverture de
+	 * son stockage.
+	 * @param memoire
+	 */
+
+	synchronized void setMemoire(Memoire memoire)
+	{
+		this.memoire = memoire;
+	}
+
+	synchronized Memoire getMemoire()
+	{
+		return memoire;
+	}
+
+	synchronized Candidat candidat(int id)
+	{
+		return candidats.get(id);
+	}
+
+	synchronized Competition competition(int id)
+	{
+		return competitions.get(id);
+	}
+
+	synchronized void ajouter(Candidat candidat)
+	{
+		candidats.put(candidat.getId(), candidat);
+	}
+
+	synchronized void ajouter(Competition competition)
+	{
+		competitions.put(competition.getId(), competition);
+	}
+
+	synchronized void retirer(Candidat candidat)
+	{
+		candidats.remove(candidat.getId(), candidat);
+		oublier(candidat);
+	}
+
+	synchronized void retirer(Competition competition)
+	{
+		competitions.remove(competition.getId(), competition);
+		oublier(competition);
+	}
+
+	/**
+	 * Note que les associations d'un objet qui vient d'être lu en base
+	 * restent à charger.
+	 * @param entite
+	 */
+
+	synchronized void lue(Object entite)
+	{
+		if (entite instanceof Candidat)
+			aCharger.get(COMPETITIONS).add(entite);
+		if (entite instanceof Competition)
+			aCharger.get(CANDIDATS).add(entite);
+		if (entite instanceof Equipe)
+			aCharger.get(MEMBRES).add(entite);
+		if (entite instanceof Personne)
+			aCharger.get(EQUIPES).add(entite);
+	}
+
+	/**
+	 * Retourne les objets dont l'association reste à charger : entite
+	 * d'abord, puis d'autres objets en attente, jusqu'à taille objets.
+	 * Ils sont considérés comme chargés dès cet appel.
+	 * @param association
+	 * @param entite
+	 * @param taille
+	 * @return une liste vide si l'association d'entite est déjà chargée.
+	 */
+
+	@SuppressWarnings("unchecked")
+	synchronized <T> List<T> lot(int association, T entite, int taille)
+	{
+		Set<Object> enAttente = aCharger.get(association);
+		List<T> lot = new ArrayList<>();
+		if (!enAttente.remove(entite))
+			return lot;
+		lot.add(entite);
+		Iterator<Object> it = enAttente.iterator();
+		while (lot.size() < taille && it.hasNext())
+		{
+			lot.add((T) it.next());
+			it.remove();
+		}
+		return lot;
+	}
+
+	/**
+	 * Remet en attente un lot dont la lecture a échoué.
+	 * @param association
+	 * @param lot
+	 */
+
+	synchronized void remettre(int association, List<?> lot)
+	{
+		aCharger.get(association).addAll(lot);
+	}
+
+	/**
+	 * Note qu'une association est chargée pour tous les objets.
+	 * @param association
+	 */
+
+	synchronized void charges(int association)
+	{
+		aCharger.get(association).clear();
+	}
+
+	private void oublier(Object entite)
+	{
+		for (Set<Object> enAttente : aCharger)
+			enAttente.remove(entite);
+	}
+
+	/**
+	 * Note que toute la base est chargée.
+	 * @return faux si elle l'était déjà.
+	 */
+
+	synchronized boolean hydrater()
+	{
+		boolean premiere = !hydratee;
+		hydratee = true;
+		return premiere;
+	}
+
+	/**
+	 * Limite le nombre d'objets gardés par type, 0 pour ne pas le limiter.
+	 * @param capacite
+	 */
+
+	synchronized void setCapacite(int capacite)
+	{
+		if (capacite < 0)
+			throw new IllegalArgumentException("Capacité invalide : " + capacite);
+		this.capacite = capacite;
+	}
+
+	synchronized void epingler(Object entite)
+	{
+		epingles.merge(entite, 1, Integer::sum);
+	}
+
+	synchronized void liberer(Object entite)
+	{
+		epingles.computeIfPresent(entite, (e, n) -> n == 1 ? null : n - 1);
+	}
+
+	/**
+	 * Retire les objets les moins récemment utilisés au-delà de la capacité.
+	 * @return les objets retirés, à retirer aussi de l'inscription.
+	 */
+
+	synchronized List<Object> evincer()
+	{
+		List<Object> evinces = new ArrayList<>();
+		if (capacite > 0)
+		{
+			evincer(candidats, evinces);
+			evincer(competitions, evinces);
+		}
+		return evinces;
+	}
+
+	private void evincer(Map<Integer, ?> objets, List<Object> evinces)
+	{
+		Iterator<?> it = objets.values().iterator();
+		while (objets.size() > capacite && it.hasNext())
+		{
+			Object objet = it.next();
+			if (!epingles.containsKey(objet) && !((Entite) objet).estModifie())
+			{
+				it.remove();
+				oublier(objet);
+				evinces.add(objet);
+			}
+		}
+	}
+}
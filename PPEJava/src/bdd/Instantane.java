@@ -0,0 +1,207 @@
+package bdd;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Instantané d'un {@link Journal}, lu en place dans un fichier projeté en
+ * mémoire. Rien n'est décodé à l'ouverture : une valeur n'est lue que
+ * lorsqu'elle est demandée, et la mémoire utilisée ne dépend que de ce
+ * qui est lu.
+ *
+ * Le fichier contient un en-tête, les entrées (clé puis valeur) et à la fin
+ * une table des positions des entrées triées par clé, où une clé ou toutes
+ * celles d'un préfixe sont retrouvées par dichotomie. Les clés de même
+ * préfixe, celles d'un même type d'objet par exemple, sont donc contiguës.
+ */
+
+class Instantane
+{
+	private static final int MAGIQUE = 0x494E5331, EN_TETE = 16;
+	private static final Instantane VIDE = new Instantane(0, ByteBuffer.allocate(0), 0, 0);
+
+	private final int premier;
+	private final ByteBuffer donnees;
+	private final int taille, table;
+
+	private Instantane(int premier, ByteBuffer donnees, int taille, int table)
+	{
+		this.premier = premier;
+		this.donnees = donnees;
+		this.taille = taille;
+		this.table = table;
+	}
+
+	/**
+	 * Retourne un instantané sans entrée, avant le segment 0.
+	 * @return
+	 */
+
+	static Instantane vide()
+	{
+		return VIDE;
+	}
+
+	/**
+	 * Projette un instantané en mémoire, sans rien en lire d'autre que
+	 * l'en-tête.
+	 * @param chemin
+	 * @return
+	 * @throws IOException si le fichier n'est pas un instantané.
+	 */
+
+	static Instantane ouvrir(Path chemin) throws IOException
+	{
+		try (FileChannel canal = FileChannel.open(chemin, StandardOpenOption.READ)) {
+			MappedByteBuffer donnees = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+			if (donnees.limit() < EN_TETE || donnees.getInt(0) != MAGIQUE)
+				throw new IOException("Instantané invalide : " + chemin);
+			return new Instantane(donnees.getInt(4), donnees, donnees.getInt(8), donnees.getInt(12));
+		}
+	}
+
+	/**
+	 * Retourne le premier segment du journal qui n'est pas dans l'instantané.
+	 * @return
+	 */
+
+	int getPremier()
+	{
+		return premier;
+	}
+
+	/**
+	 * Retourne la valeur d'une clé, null si elle n'y est pas.
+	 * @param cle
+	 * @return
+	 */
+
+	byte[] lire(String cle)
+	{
+		int i = chercher(cle);
+		return i < taille && cle.equals(cle(i)) ? valeur(i) : null;
+	}
+
+	/**
+	 * Parcourt dans l'ordre des clés les entrées dont la clé commence par
+	 * {@code prefixe}, toutes pour un préfixe vide.
+	 * @param prefixe
+	 * @return
+	 */
+
+	Iterator<Map.Entry<String, byte[]>> parcourir(String prefixe)
+	{
+		int debut = chercher(prefixe);
+		return new Iterator<Map.Entry<String, byte[]>>()
+		{
+			private int i = debut;
+
+			@Override
+			public boolean hasNext()
+			{
+				return i < taille && cle(i).startsWith(prefixe);
+			}
+
+			@Override
+			public Map.Entry<String, byte[]> next()
+			{
+				if (!hasNext())
+					throw new NoSuchElementException();
+				Map.Entry<String, byte[]> entree = new AbstractMap.SimpleImmutableEntry<>(cle(i), valeur(i));
+				i++;
+				return entree;
+			}
+		};
+	}
+
+	/**
+	 * Retourne l'indice de la première clé supérieure ou égale à cle.
+	 */
+
+	private int chercher(String cle)
+	{
+		int bas = 0, haut = taille;
+		while (bas < haut)
+		{
+			int milieu = (bas + haut) >>> 1;
+			if (cle(milieu).compareTo(cle) < 0)
+				bas = milieu + 1;
+			else
+				haut = milieu;
+		}
+		return bas;
+	}
+
+	private String cle(int i)
+	{
+		int position = donnees.getInt(table + 4 * i);
+		byte[] octets = new byte[donnees.getShort(position)];
+		ByteBuffer lecture = donnees.duplicate();
+		lecture.position(position + 2);
+		lecture.get(octets);
+		return new String(octets, StandardCharsets.UTF_8);
+	}
+
+	private byte[] valeur(int i)
+	{
+		int position = donnees.getInt(table + 4 * i);
+		position += 2 + donnees.getShort(position);
+		byte[] valeur = new byte[donnees.getInt(position)];
+		ByteBuffer lecture = donnees.duplicate();
+		lecture.position(position + 4);
+		lecture.get(valeur);
+		return valeur;
+	}
+
+	/**
+	 * Écrit un instantané.
+	 * @param chemin
+	 * @param premier premier segment du journal qui n'y est pas.
+	 * @param entrees les entrées, triées par clé.
+	 * @throws IOException
+	 */
+
+	static void ecrire(Path chemin, int premier, Iterator<Map.Entry<String, byte[]>> entrees) throws IOException
+	{
+		try (FileChannel canal = FileChannel.open(chemin, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			DataOutputStream sortie = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(canal)));
+			sortie.write(new byte[EN_TETE]);
+			int[] positions = new int[1024];
+			int taille = 0;
+			while (entrees.hasNext())
+			{
+				Map.Entry<String, byte[]> entree = entrees.next();
+				if (taille == positions.length)
+					positions = Arrays.copyOf(positions, 2 * taille);
+				positions[taille++] = sortie.size();
+				byte[] cle = entree.getKey().getBytes(StandardCharsets.UTF_8);
+				sortie.writeShort(cle.length);
+				sortie.write(cle);
+				sortie.writeInt(entree.getValue().length);
+				sortie.write(entree.getValue());
+			}
+			int table = sortie.size();
+			for (int i = 0; i < taille; i++)
+				sortie.writeInt(positions[i]);
+			sortie.flush();
+			ByteBuffer enTete = ByteBuffer.allocate(EN_TETE);
+			enTete.putInt(MAGIQUE).putInt(premier).putInt(taille).putInt(table).flip();
+			canal.write(enTete, 0);
+			canal.force(true);
+		}
+	}
+}
@@ -0,0 +1,339 @@
+package bdd;
+
+import static bdd.Requetes.*;
+
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetProvider;
+
+import inscriptions.Candidat;
+import inscriptions.Competition;
+import inscriptions.Entite;
+import inscriptions.Equipe;
+import inscriptions.Inscriptions;
+import inscriptions.Personne;
+
+/**
+ * Suivi de la table change_log : les changements écrits par les autres
+ * instances de l'application (voir {@link Changement}) sont appliqués
+ * à l'inscription, sans la recharger.
+ *
+ * Le thread du suivi ne fait que lire : il relève périodiquement les
+ * changements et les lignes des objets à relire, sans attendre les
+ * écritures différées ni prendre le verrou de l'inscription. Ils sont
+ * appliqués ensuite par le thread qui lit l'inscription, sous son verrou
+ * (voir {@link #appliquer(Inscriptions)}). La table n'est pas relue tant
+ * que les changements relevés n'ont pas été appliqués.
+ *
+ * La ligne relue d'un objet ajouté ou modifié est appliquée s'il est chargé,
+ * celle d'un objet ajouté aussi s'il ne l'est pas ; un objet supprimé est retiré de
+ * l'inscription ; un lien est établi ou défait entre deux objets chargés.
+ * Un objet qui a des modifications pas encore écrites n'est pas relu : son
+ * écriture sera refusée (voir {@link ConflitException}) puis fusionnée.
+ *
+ * Les numéros sont attribués à l'insertion mais deviennent visibles à la
+ * validation de leur transaction, pas forcément dans l'ordre : les numéros
+ * manquants sont relus tant qu'ils ont moins de {@code ATTENTE} ms, au-delà
+ * leur transaction est considérée annulée.
+ */
+
+class Invalidation
+{
+	private static final long ATTENTE = 10000;
+	private static final int LOT = 1000;
+
+	private final WeakReference<Inscriptions> inscription;
+	private final long conservation;
+	private final ScheduledExecutorService suivi;
+	private final Set<Long> lus = new HashSet<>();
+	private final Queue<Releve> releves = new ConcurrentLinkedQueue<>();
+	private long plancher = -1, trouDepuis, purge;
+
+	/**
+	 * Démarre le suivi, qui s'arrête quand l'inscription n'est plus utilisée.
+	 * @param inscription
+	 * @param periode durée (ms) entre deux lectures de la table.
+	 * @param conservation durée (s) au-delà de laquelle les lignes sont supprimées.
+	 */
+
+	Invalidation(Inscriptions inscription, long periode, long conservation)
+	{
+		this.inscription = new WeakReference<>(inscription);
+		this.conservation = conservation;
+		suivi = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "Invalidation");
+			thread.setDaemon(true);
+			return thread;
+		});
+		suivi.scheduleWithFixedDelay(this::suivre, 0, periode, TimeUnit.MILLISECONDS);
+	}
+
+	private void suivre()
+	{
+		Inscriptions inscription = this.inscription.get();
+		if (inscription == null)
+		{
+			suivi.shutdown();
+			return;
+		}
+		try
+		{
+			if (releves.isEmpty())
+				relever();
+		}
+		catch (SQLException | RuntimeException e)
+		{
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Relève les changements écrits depuis l'appel précédent, avec la ligne
+	 * de chaque objet ajouté ou modifié. Le premier appel ne fait que noter
+	 * le dernier numéro : l'inscription est lue en base après.
+	 * @return le nombre de changements relevés.
+	 * @throws SQLException
+	 */
+
+	synchronized int relever() throws SQLException
+	{
+		try (Connection cn = Connect.getConnection()) {
+			if (plancher < 0)
+			{
+				try (PreparedStatement st = cn.prepareStatement(SELECT_CHANGE_LOG_MAX);
+						ResultSet result = st.executeQuery()) {
+					result.next();
+					plancher = result.getLong(1);
+				}
+				return 0;
+			}
+			purger(cn);
+			int releves = 0;
+			try (PreparedStatement st = cn.prepareStatement(SELECT_CHANGE_LOG)) {
+				st.setLong(1, plancher);
+				st.setInt(2, LOT);
+				try (ResultSet result = st.executeQuery()) {
+					while (result.next())
+						if (lus.add(result.getLong("numero")) && result.getInt("origine") != Changement.ORIGINE)
+						{
+							this.releves.add(relever(cn, result.getString("entite"), result.getInt("id"),
+									result.getInt("id_lie"), result.getString("operation")));
+							releves++;
+						}
+				}
+			}
+			avancer();
+			return releves;
+		}
+	}
+
+	/**
+	 * Retourne vrai s'il y a des changements relevés pas encore appliqués.
+	 * @return
+	 */
+
+	boolean enAttente()
+	{
+		return !releves.isEmpty();
+	}
+
+	/**
+	 * Applique les changements relevés, sur le thread appelant et sous le
+	 * verrou de l'inscription.
+	 * @param inscription
+	 * @return le nombre de changements appliqués.
+	 * @throws SQLException
+	 */
+
+	int appliquer(Inscriptions inscription) throws SQLException
+	{
+		int appliques = 0;
+		synchronized (inscription)
+		{
+			try
+			{
+				for (Releve releve; (releve = releves.poll()) != null; appliques++)
+					appliquer(inscription, releve);
+			}
+			finally
+			{
+				Connect.evincer(inscription);
+			}
+		}
+		return appliques;
+	}
+
+	/**
+	 * Avance le plancher sur les numéros relevés qui le suivent, et
+	 * au-delà d'un numéro manquant depuis plus de {@code ATTENTE} ms.
+	 */
+
+	private void avancer()
+	{
+		long maintenant = System.currentTimeMillis();
+		while (!lus.isEmpty())
+		{
+			if (lus.remove(plancher + 1))
+				trouDepuis = 0;
+			else if (trouDepuis == 0)
+			{
+				trouDepuis = maintenant;
+				return;
+			}
+			else if (maintenant - trouDepuis < ATTENTE)
+				return;
+			plancher++;
+		}
+		trouDepuis = 0;
+	}
+
+	private void purger(Connection cn) throws SQLException
+	{
+		long maintenant = System.currentTimeMillis();
+		if (maintenant - purge < TimeUnit.HOURS.toMillis(1))
+			return;
+		purge = maintenant;
+		Connect.executer(cn, DELETE_CHANGE_LOG, conservation);
+	}
+
+	private static Releve relever(Connection cn, String entite, int id, int idLie, String operation)
+			throws SQLException
+	{
+		String requete = null;
+		switch (entite)
+		{
+			case Changement.PERSONNE:
+				requete = SELECT_PERSONNE_ID;
+				break;
+			case Changement.EQUIPE:
+				requete = SELECT_EQUIPE_ID;
+				break;
+			case Changement.COMPETITION:
+				requete = SELECT_COMPETITION_ID;
+				break;
+		}
+		CachedRowSet ligne = null;
+		if (requete != null && !Changement.SUPPRESSION.equals(operation))
+		{
+			try (PreparedStatement st = cn.prepareStatement(requete)) {
+				st.setInt(1, id);
+				try (ResultSet result = st.executeQuery()) {
+					ligne = RowSetProvider.newFactory().createCachedRowSet();
+					ligne.populate(result);
+				}
+			}
+		}
+		return new Releve(entite, id, idLie, operation, ligne);
+	}
+
+	private static void appliquer(Inscriptions inscription, Releve releve) throws SQLException
+	{
+		IdentityMap identites = IdentityMap.de(inscription);
+		switch (releve.entite)
+		{
+			case Changement.PERSONNE:
+				relire(inscription, identites.candidat(releve.id), releve,
+						result -> Connect.personne(inscription, result, true));
+				break;
+			case Changement.EQUIPE:
+				relire(inscription, identites.candidat(releve.id), releve,
+						result -> Connect.equipe(inscription, result));
+				break;
+			case Changement.COMPETITION:
+				relire(inscription, identites.competition(releve.id), releve,
+						result -> Connect.competition(inscription, result));
+				break;
+			case Changement.MEMBRE:
+				Candidat personne = identites.candidat(releve.id), equipe = identites.candidat(releve.idLie);
+				if (personne instanceof Personne && equipe instanceof Equipe)
+				{
+					if (Changement.SUPPRESSION.equals(releve.operation))
+						((Equipe) equipe).remove((Personne) personne, false);
+					else
+						((Equipe) equipe).add((Personne) personne, false);
+				}
+				break;
+			case Changement.INSCRIPTION:
+				Candidat candidat = identites.candidat(releve.id);
+				Competition competition = identites.competition(releve.idLie);
+				if (candidat != null && competition != null)
+				{
+					if (Changement.SUPPRESSION.equals(releve.operation))
+						competition.remove(candidat, false);
+					else
+						competition.add(candidat, false);
+				}
+				break;
+		}
+	}
+
+	private static void relire(Inscriptions inscription, Entite connu, Releve releve,
+			Curseur.Lecture<?> lecture) throws SQLException
+	{
+		if (connu == null ? !Changement.AJOUT.equals(releve.operation) : connu.estModifie())
+			return;
+		if ((Changement.SUPPRESSION.equals(releve.operation) || !releve.relire(lecture)) && connu != null)
+			oublier(inscription, connu);
+	}
+
+	private static void oublier(Inscriptions inscription, Entite connu)
+	{
+		IdentityMap identites = IdentityMap.de(inscription);
+		if (connu instanceof Candidat)
+		{
+			Connect.memoire(inscription).oublier((Candidat) connu);
+			identites.retirer((Candidat) connu);
+		}
+		else
+		{
+			Connect.memoire(inscription).oublier((Competition) connu);
+			identites.retirer((Competition) connu);
+		}
+	}
+
+	/**
+	 * Un changement relevé, avec la ligne lue de l'objet ajouté ou modifié.
+	 */
+
+	private static class Releve
+	{
+		final String entite, operation;
+		final int id, idLie;
+		final CachedRowSet ligne;
+
+		Releve(String entite, int id, int idLie, String operation, CachedRowSet ligne)
+		{
+			this.entite = entite;
+			this.id = id;
+			this.idLie = idLie;
+			this.operation = operation;
+			this.ligne = ligne;
+		}
+
+		/**
+		 * Applique la ligne lue.
+		 * @param lecture
+		 * @return faux si l'objet n'existe plus en base.
+		 * @throws SQLException
+		 */
+
+		boolean relire(Curseur.Lecture<?> lecture) throws SQLException
+		{
+			try (CachedRowSet lignes = ligne) {
+				return lignes != null && lignes.next() && lecture.lire(lignes) != null;
+			}
+		}
+	}
+}
@@ -0,0 +1,598 @@
+package bdd;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Journal en ajout seul d'un état clé -> valeur, avec un instantané.
+ *
+ * Chaque {@link #ajouter(List, boolean)} est un bloc d'entrées écrit d'un
+ * seul tenant à la fin du segment courant, avec sa longueur et sa somme de
+ * contrôle. Un thread d'écriture regroupe tous les blocs en attente en une
+ * écriture et un seul fsync (group commit).
+ *
+ * Quand le segment courant dépasse {@code seuil} entrées, le journal passe
+ * au segment suivant et un thread d'arrière-plan écrit un nouvel
+ * {@link Instantane} : le précédent fusionné avec les entrées écrites
+ * depuis, puis supprime les segments qu'il couvre. À l'ouverture,
+ * l'instantané est projeté en mémoire sans être lu et seuls les segments
+ * plus récents sont relus ; un bloc tronqué par un arrêt brutal termine
+ * la relecture.
+ */
+
+class Journal
+{
+	private static final String INSTANTANE = ".snapshot.", SEGMENT = ".journal.";
+	private static final byte[] SUPPRIMEE = new byte[0];
+
+	/**
+	 * Une clé et sa nouvelle valeur, null si la clé est supprimée.
+	 */
+
+	static class Entree
+	{
+		final String cle;
+		final byte[] valeur;
+
+		Entree(String cle, byte[] valeur)
+		{
+			this.cle = cle;
+			this.valeur = valeur;
+		}
+	}
+
+	private final Path dossier;
+	private final String nom;
+	private final int seuil;
+	private volatile Instantane base;
+	private volatile Map<String, byte[]> gele;
+	private volatile Map<String, byte[]> courant = new ConcurrentHashMap<>();
+	private final Deque<List<Entree>> file = new ArrayDeque<>();
+	private final ReentrantLock verrou = new ReentrantLock();
+	private final Condition nonVide = verrou.newCondition();
+	private final Condition ecrit = verrou.newCondition();
+	private final Thread ecrivain;
+	private FileChannel canal;
+	private int segment, entreesDuSegment;
+	private Thread instantane;
+	private long soumis, ecrits;
+	private IOException erreur;
+	private boolean ferme;
+
+	/**
+	 * Ouvre le journal {@code nom} du dossier et relit les segments
+	 * postérieurs à son instantané.
+	 * @param dossier
+	 * @param nom préfixe des fichiers du journal.
+	 * @param seuil nombre d'entrées d'un segment au-delà duquel
+	 * un instantané est écrit.
+	 * @throws IOException
+	 */
+
+	Journal(Path dossier, String nom, int seuil) throws IOException
+	{
+		if (seuil < 1)
+			throw new IllegalArgumentException("Seuil invalide : " + seuil);
+		this.dossier = dossier;
+		this.nom = nom;
+		this.seuil = seuil;
+		base = relireInstantane();
+		int premier = base.getPremier();
+		TreeMap<Integer, Path> segments = fichiers(SEGMENT);
+		for (Map.Entry<Integer, Path> s : segments.entrySet())
+			if (s.getKey() < premier)
+				Files.deleteIfExists(s.getValue());
+			else
+				relireSegment(s.getValue());
+		segment = Math.max(premier, segments.isEmpty() ? 0 : segments.lastKey() + 1);
+		canal = ouvrir(segment);
+		ecrivain = new Thread(this::ecrire, "Journal");
+		ecrivain.setDaemon(true);
+		ecrivain.start();
+	}
+
+	/**
+	 * Retourne la valeur d'une clé écrite sur disque, null si elle n'a
+	 * pas de valeur.
+	 * @param cle
+	 * @return
+	 */
+
+	byte[] lire(String cle)
+	{
+		byte[] valeur = courant.get(cle);
+		Map<String, byte[]> gele = this.gele;
+		if (valeur == null && gele != null)
+			valeur = gele.get(cle);
+		if (valeur == null)
+			valeur = base.lire(cle);
+		return valeur == SUPPRIMEE ? null : valeur;
+	}
+
+	/**
+	 * Retourne, triées par clé, les entrées écrites sur disque dont la clé
+	 * commence par {@code prefixe}.
+	 * @param prefixe
+	 * @return
+	 */
+
+	SortedMap<String, byte[]> parcourir(String prefixe)
+	{
+		Map<String, byte[]> courant = this.courant, gele = this.gele;
+		SortedMap<String, byte[]> entrees = new TreeMap<>();
+		for (Iterator<Map.Entry<String, byte[]>> it = base.parcourir(prefixe); it.hasNext();)
+		{
+			Map.Entry<String, byte[]> entree = it.next();
+			entrees.put(entree.getKey(), entree.getValue());
+		}
+		if (gele != null)
+			recouvrir(entrees, gele, prefixe);
+		recouvrir(entrees, courant, prefixe);
+		return entrees;
+	}
+
+	private static void recouvrir(Map<String, byte[]> entrees, Map<String, byte[]> modifiees, String prefixe)
+	{
+		for (Map.Entry<String, byte[]> entree : modifiees.entrySet())
+			if (entree.getKey().startsWith(prefixe))
+			{
+				if (entree.getValue() == SUPPRIMEE)
+					entrees.remove(entree.getKey());
+				else
+					entrees.put(entree.getKey(), entree.getValue());
+			}
+	}
+
+	/**
+	 * Ajoute un bloc d'entrées au journal. Les entrées d'un même bloc sont
+	 * toutes relues ou aucune.
+	 * @param entrees
+	 * @param attendre vrai pour ne revenir qu'une fois le bloc sur disque.
+	 * @throws PersistanceException si l'écriture du journal a échoué.
+	 */
+
+	void ajouter(List<Entree> entrees, boolean attendre)
+	{
+		if (entrees.isEmpty())
+			return;
+		long numero;
+		verrou.lock();
+		try
+		{
+			if (ferme)
+				throw new IllegalStateException("Journal fermé");
+			file.addLast(entrees);
+			numero = ++soumis;
+			nonVide.signal();
+		}
+		finally
+		{
+			verrou.unlock();
+		}
+		if (attendre)
+			attendre(numero);
+	}
+
+	/**
+	 * Attend que tous les blocs déjà ajoutés soient sur disque.
+	 * @throws PersistanceException si l'écriture du journal a échoué.
+	 */
+
+	void flush()
+	{
+		verrou.lock();
+		try
+		{
+			attendre(soumis);
+		}
+		finally
+		{
+			verrou.unlock();
+		}
+	}
+
+	private void attendre(long numero)
+	{
+		verrou.lock();
+		try
+		{
+			while (ecrits < numero && erreur == null)
+				ecrit.awaitUninterruptibly();
+			if (erreur != null)
+				throw new PersistanceException("Écriture du journal impossible", erreur);
+		}
+		finally
+		{
+			verrou.unlock();
+		}
+	}
+
+	/**
+	 * Écrit les blocs en attente, attend la fin de l'instantané en cours
+	 * et ferme le journal.
+	 */
+
+	void close()
+	{
+		verrou.lock();
+		try
+		{
+			ferme = true;
+			nonVide.signal();
+		}
+		finally
+		{
+			verrou.unlock();
+		}
+		try
+		{
+			ecrivain.join();
+			if (instantane != null)
+				instantane.join();
+			canal.close();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+		}
+	}
+
+	private void ecrire()
+	{
+		while (true)
+		{
+			List<List<Entree>> blocs = new ArrayList<>();
+			long dernier;
+			verrou.lock();
+			try
+			{
+				while (file.isEmpty() && !ferme)
+					nonVide.awaitUninterruptibly();
+				if (file.isEmpty())
+					return;
+				blocs.addAll(file);
+				file.clear();
+				dernier = soumis;
+			}
+			finally
+			{
+				verrou.unlock();
+			}
+			IOException echec = null;
+			try
+			{
+				ByteArrayOutputStream octets = new ByteArrayOutputStream();
+				DataOutputStream sortie = new DataOutputStream(octets);
+				for (List<Entree> bloc : blocs)
+					ecrireBloc(sortie, bloc);
+				ByteBuffer tampon = ByteBuffer.wrap(octets.toByteArray());
+				while (tampon.hasRemaining())
+					canal.write(tampon);
+				canal.force(false);
+				for (List<Entree> bloc : blocs)
+				{
+					appliquer(bloc);
+					entreesDuSegment += bloc.size();
+				}
+			}
+			catch (IOException e)
+			{
+				echec = e;
+			}
+			if (echec == null && entreesDuSegment >= seuil && (instantane == null || !instantane.isAlive()))
+			{
+				try
+				{
+					pivoter();
+				}
+				catch (IOException e)
+				{
+					e.printStackTrace();
+				}
+			}
+			verrou.lock();
+			try
+			{
+				if (echec != null)
+					erreur = echec;
+				else
+					ecrits = dernier;
+				ecrit.signalAll();
+			}
+			finally
+			{
+				verrou.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Passe au segment suivant et écrit en arrière-plan l'instantané
+	 * de l'état à la fin du segment fermé.
+	 */
+
+	private void pivoter() throws IOException
+	{
+		canal.close();
+		int premier = ++segment;
+		canal = ouvrir(segment);
+		entreesDuSegment = 0;
+		Map<String, byte[]> aEcrire = courant;
+		if (gele != null)
+		{
+			aEcrire = new HashMap<>(gele);
+			aEcrire.putAll(courant);
+		}
+		gele = aEcrire;
+		courant = new ConcurrentHashMap<>();
+		Instantane precedent = base;
+		SortedMap<String, byte[]> nouvelles = new TreeMap<>(aEcrire);
+		instantane = new Thread(() -> ecrireInstantane(precedent, nouvelles, premier), "Journal-instantane");
+		instantane.setDaemon(true);
+		instantane.start();
+	}
+
+	private void ecrireInstantane(Instantane precedent, SortedMap<String, byte[]> nouvelles, int premier)
+	{
+		Path chemin = dossier.resolve(nom + INSTANTANE + premier);
+		Path temporaire = dossier.resolve(nom + INSTANTANE + premier + ".tmp");
+		try
+		{
+			Instantane.ecrire(temporaire, premier, fusion(precedent.parcourir(""), nouvelles.entrySet().iterator()));
+			Files.move(temporaire, chemin, StandardCopyOption.ATOMIC_MOVE);
+			base = Instantane.ouvrir(chemin);
+			gele = null;
+			for (Path segment : fichiers(SEGMENT).headMap(premier).values())
+				Files.deleteIfExists(segment);
+			supprimer(fichiers(INSTANTANE).headMap(premier).values());
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Fusionne deux suites d'entrées triées par clé, celles de nouvelles
+	 * remplaçant celles de même clé d'anciennes. Les clés supprimées
+	 * sont omises.
+	 */
+
+	private static Iterator<Map.Entry<String, byte[]>> fusion(Iterator<Map.Entry<String, byte[]>> anciennes,
+			Iterator<Map.Entry<String, byte[]>> nouvelles)
+	{
+		return new Iterator<Map.Entry<String, byte[]>>()
+		{
+			private Map.Entry<String, byte[]> ancienne = suivante(anciennes), nouvelle = suivante(nouvelles);
+			private Map.Entry<String, byte[]> prochaine = avancer();
+
+			private Map.Entry<String, byte[]> avancer()
+			{
+				while (ancienne != null || nouvelle != null)
+				{
+					int ordre = ancienne == null ? 1 : nouvelle == null ? -1
+							: ancienne.getKey().compareTo(nouvelle.getKey());
+					Map.Entry<String, byte[]> entree;
+					if (ordre < 0)
+					{
+						entree = ancienne;
+						ancienne = suivante(anciennes);
+					}
+					else
+					{
+						entree = nouvelle;
+						nouvelle = suivante(nouvelles);
+						if (ordre == 0)
+							ancienne = suivante(anciennes);
+					}
+					if (entree.getValue() != SUPPRIMEE)
+						return entree;
+				}
+				return null;
+			}
+
+			@Override
+			public boolean hasNext()
+			{
+				return prochaine != null;
+			}
+
+			@Override
+			public Map.Entry<String, byte[]> next()
+			{
+				if (prochaine == null)
+					throw new NoSuchElementException();
+				Map.Entry<String, byte[]> entree = prochaine;
+				prochaine = avancer();
+				return entree;
+			}
+		};
+	}
+
+	private static <T> T suivante(Iterator<T> it)
+	{
+		return it.hasNext() ? it.next() : null;
+	}
+
+	/**
+	 * Projette le dernier instantané complet et supprime les autres.
+	 */
+
+	private Instantane relireInstantane() throws IOException
+	{
+		try (DirectoryStream<Path> temporaires = Files.newDirectoryStream(dossier, nom + INSTANTANE + "*.tmp")) {
+			for (Path temporaire : temporaires)
+				Files.deleteIfExists(temporaire);
+		}
+		TreeMap<Integer, Path> instantanes = fichiers(INSTANTANE);
+		if (instantanes.isEmpty())
+			return Instantane.vide();
+		supprimer(instantanes.headMap(instantanes.lastKey()).values());
+		return Instantane.ouvrir(instantanes.lastEntry().getValue());
+	}
+
+	/**
+	 * Supprime des fichiers dont l'échec n'empêche pas de continuer :
+	 * un instantané encore projeté ne peut pas être supprimé sous Windows,
+	 * il le sera à la prochaine ouverture.
+	 */
+
+	private static void supprimer(Collection<Path> fichiers)
+	{
+		for (Path fichier : fichiers)
+		{
+			try
+			{
+				Files.deleteIfExists(fichier);
+			}
+			catch (IOException e)
+			{
+			}
+		}
+	}
+
+	private void relireSegment(Path chemin) throws IOException
+	{
+		try (InputStream fichier = Files.newInputStream(chemin)) {
+			DataInputStream entree = new DataInputStream(fichier);
+			List<Entree> bloc;
+			while ((bloc = lireBloc(entree)) != null)
+				appliquer(bloc);
+		}
+	}
+
+	private void appliquer(List<Entree> bloc)
+	{
+		for (Entree entree : bloc)
+			courant.put(entree.cle, entree.valeur == null ? SUPPRIMEE : entree.valeur);
+	}
+
+	private FileChannel ouvrir(int numero) throws IOException
+	{
+		return FileChannel.open(dossier.resolve(nom + SEGMENT + numero),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * Retourne par numéro les fichiers du journal d'un type, segments ou
+	 * instantanés.
+	 */
+
+	private TreeMap<Integer, Path> fichiers(String type) throws IOException
+	{
+		TreeMap<Integer, Path> numerotes = new TreeMap<>();
+		try (DirectoryStream<Path> fichiers = Files.newDirectoryStream(dossier, nom + type + "*")) {
+			for (Path fichier : fichiers)
+			{
+				try
+				{
+					String suffixe = fichier.getFileName().toString().substring((nom + type).length());
+					numerotes.put(Integer.parseInt(suffixe), fichier);
+				}
+				catch (NumberFormatException e)
+				{
+				}
+			}
+		}
+		return numerotes;
+	}
+
+	/**
+	 * Écrit un bloc : sa longueur, sa somme de contrôle puis ses entrées.
+	 */
+
+	private static void ecrireBloc(DataOutputStream sortie, List<Entree> bloc) throws IOException
+	{
+		ByteArrayOutputStream octets = new ByteArrayOutputStream();
+		DataOutputStream donnees = new DataOutputStream(octets);
+		donnees.writeInt(bloc.size());
+		for (Entree entree : bloc)
+		{
+			donnees.writeUTF(entree.cle);
+			donnees.writeInt(entree.valeur == null ? -1 : entree.valeur.length);
+			if (entree.valeur != null)
+				donnees.write(entree.valeur);
+		}
+		byte[] contenu = octets.toByteArray();
+		CRC32 crc = new CRC32();
+		crc.update(contenu);
+		sortie.writeInt(contenu.length);
+		sortie.writeLong(crc.getValue());
+		sortie.write(contenu);
+	}
+
+	/**
+	 * Lit le bloc suivant.
+	 * @return null à la fin du fichier ou sur un bloc incomplet ou corrompu.
+	 */
+
+	private static List<Entree> lireBloc(DataInputStream entree) throws IOException
+	{
+		byte[] contenu;
+		long attendu;
+		try
+		{
+			int longueur = entree.readInt();
+			if (longueur < 0)
+				return null;
+			attendu = entree.readLong();
+			contenu = new byte[longueur];
+			entree.readFully(contenu);
+		}
+		catch (EOFException e)
+		{
+			return null;
+		}
+		CRC32 crc = new CRC32();
+		crc.update(contenu);
+		if (crc.getValue() != attendu)
+			return null;
+		DataInputStream donnees = new DataInputStream(new ByteArrayInputStream(contenu));
+		int taille = donnees.readInt();
+		List<Entree> bloc = new ArrayList<>(taille);
+		for (int i = 0; i < taille; i++)
+		{
+			String cle = donnees.readUTF();
+			int longueur = donnees.readInt();
+			byte[] valeur = null;
+			if (longueur >= 0)
+			{
+				valeur = new byte[longueur];
+				donnees.readFully(valeur);
+			}
+			bloc.add(new Entree(cle, valeur));
+		}
+		return bloc;
+	}
+}
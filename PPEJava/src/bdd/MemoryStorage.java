@@ -0,0 +1,229 @@
+package bdd;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import inscriptions.Candidat;
+import inscriptions.Competition;
+import inscriptions.Equipe;
+import inscriptions.Inscriptions;
+import inscriptions.Memoire;
+import inscriptions.Personne;
+
+/**
+ * Stockage en mémoire, sans base : les objets de l'inscription sont
+ * eux-mêmes les données. Il attribue les ids et retrouve les objets par id,
+ * toutes les autres opérations sont immédiates et sans effet. Sert aux
+ * tests et aux mesures de performance sans MySQL.
+ */
+
+public class MemoryStorage implements StorageEngine
+{
+	private final AtomicInteger idCandidat = new AtomicInteger(), idCompetition = new AtomicInteger();
+	private final Map<Integer, Candidat> candidats = new ConcurrentHashMap<>();
+	private final Map<Integer, Competition> competitions = new ConcurrentHashMap<>();
+
+	/**
+	 * Reprend les ids déjà attribués aux objets de l'inscription, les
+	 * suivants partent du plus grand.
+	 */
+
+	@Override
+	public void ouvrir(Inscriptions inscription, Memoire memoire)
+	{
+		for (Candidat candidat : inscription.getCandidats())
+			if (candidat.getId() != 0)
+				indexer(candidat);
+		for (Competition competition : inscription.getCompetitions())
+			if (competition.getId() != 0)
+				indexer(competition);
+	}
+
+	/**
+	 * Retrouve désormais par son id un candidat qui en a déjà un.
+	 * @param candidat
+	 */
+
+	void indexer(Candidat candidat)
+	{
+		candidats.put(candidat.getId(), candidat);
+		reprendre(candidat.getId(), 0);
+	}
+
+	void indexer(Competition competition)
+	{
+		competitions.put(competition.getId(), competition);
+		reprendre(0, competition.getId());
+	}
+
+	/**
+	 * Fait partir les prochains ids après ceux donnés.
+	 * @param idCandidat
+	 * @param idCompetition
+	 */
+
+	void reprendre(int idCandidat, int idCompetition)
+	{
+		this.idCandidat.accumulateAndGet(idCandidat, Math::max);
+		this.idCompetition.accumulateAndGet(idCompetition, Math::max);
+	}
+
+	public Timestamp personnesModifiees(Inscriptions inscription, Timestamp depuis)
+	{
+		return depuis;
+	}
+
+	public Timestamp equipesModifiees(Inscriptions inscription, Timestamp depuis)
+	{
+		return depuis;
+	}
+
+	public Personne personne(Inscriptions inscription, int id)
+	{
+		Candidat candidat = candidats.get(id);
+		return candidat instanceof Personne ? (Personne) candidat : null;
+	}
+
+	public Equipe equipe(Inscriptions inscription, int id)
+	{
+		Candidat candidat = candidats.get(id);
+		return candidat instanceof Equipe ? (Equipe) candidat : null;
+	}
+
+	public Competition competition(Inscriptions inscription, int id)
+	{
+		return competitions.get(id);
+	}
+
+	public void chargerCompetitions(Candidat candidat)
+	{
+	}
+
+	public void chargerCandidats(Competition competition)
+	{
+	}
+
+	public void chargerMembres(Equipe equipe)
+	{
+	}
+
+	public void chargerEquipes(Personne personne)
+	{
+	}
+
+	public void limiterCache(Inscriptions inscription, int taille)
+	{
+	}
+
+	public void save(Personne personne)
+	{
+		ajouter(personne);
+	}
+
+	public void save(Equipe equipe)
+	{
+		ajouter(equipe);
+	}
+
+	public void save(Competition competition)
+	{
+		competition.setId(idCompetition.incrementAndGet());
+		competitions.put(competition.getId(), competition);
+	}
+
+	public void save(Personne personne, Equipe equipe)
+	{
+	}
+
+	public void save(Candidat candidat, Competition competition)
+	{
+	}
+
+	public void save(Collection<Personne> membres, Equipe equipe)
+	{
+	}
+
+	public void save(Collection<? extends Candidat> candidats, Competition competition)
+	{
+	}
+
+	public void update(Personne personne)
+	{
+	}
+
+	public void update(Equipe equipe)
+	{
+	}
+
+	public void update(Competition competition)
+	{
+	}
+
+	public void delete(Personne personne)
+	{
+		candidats.remove(personne.getId(), personne);
+	}
+
+	public void delete(Equipe equipe)
+	{
+		candidats.remove(equipe.getId(), equipe);
+	}
+
+	public void delete(Competition competition)
+	{
+		competitions.remove(competition.getId(), competition);
+	}
+
+	public void delete(Personne personne, Equipe equipe)
+	{
+	}
+
+	public void delete(Candidat candidat, Competition competition)
+	{
+	}
+
+	public void oublier(Candidat candidat)
+	{
+		candidats.remove(candidat.getId(), candidat);
+		candidat.setId(0);
+	}
+
+	public void oublier(Competition competition)
+	{
+		competitions.remove(competition.getId(), competition);
+		competition.setId(0);
+	}
+
+	public void commencer()
+	{
+	}
+
+	public void valider()
+	{
+	}
+
+	public void annuler()
+	{
+	}
+
+	public void activerWriteBehind(int capacite)
+	{
+	}
+
+	public void desactiverWriteBehind()
+	{
+	}
+
+	public void flush()
+	{
+	}
+
+	private void ajouter(Candidat candidat)
+	{
+		candidat.setId(idCandidat.incrementAndGet());
+		candidats.put(candidat.getId(), candidat);
+	}
+}
@@ -0,0 +1,335 @@
+package bdd;
+
+import static bdd.Requetes.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import inscriptions.Candidat;
+import inscriptions.Competition;
+import inscriptions.Equipe;
+import inscriptions.Inscriptions;
+import inscriptions.Personne;
+
+/**
+ * Migration d'une inscription sauvegardée dans Inscriptions.srz (voir
+ * {@link Inscriptions#sauvegarder()}) vers la base MySQL.
+ *
+ * Les ids de tous les objets sont réservés d'un coup dans la table sequence
+ * puis attribués dans l'ordre des ensembles de l'inscription : ils sont les
+ * mêmes à chaque exécution sur le même fichier. Les lignes sont ensuite
+ * insérées par blocs de {@code taille}, un lot et une transaction par bloc,
+ * plusieurs blocs en parallèle : d'abord les candidats et les compétitions,
+ * puis les personnes et les équipes, puis les liens, pour respecter les
+ * clés étrangères.
+ *
+ * Chaque bloc est noté fait dans la table import_srz_bloc dans la même
+ * transaction que ses lignes : une migration interrompue reprend aux blocs
+ * pas encore faits. Le nombre de lignes de chaque table est vérifié à la fin.
+ *
+ * Les objets migrés ne sont pas signalés dans change_log : les instances
+ * déjà démarrées doivent être rechargées.
+ */
+
+public class MigrationSrz
+{
+	private static final String CREATE_IMPORT = "CREATE TABLE IF NOT EXISTS import_srz (empreinte CHAR(64) NOT NULL, "
+			+ "premier_candidat INT NOT NULL, premiere_competition INT NOT NULL, termine_le DATETIME DEFAULT NULL, "
+			+ "PRIMARY KEY (empreinte)) ENGINE=InnoDB DEFAULT CHARSET=latin1";
+	private static final String CREATE_IMPORT_BLOC = "CREATE TABLE IF NOT EXISTS import_srz_bloc (empreinte CHAR(64) NOT NULL, "
+			+ "etape VARCHAR(16) NOT NULL, bloc INT NOT NULL, PRIMARY KEY (empreinte, etape, bloc)) ENGINE=InnoDB DEFAULT CHARSET=latin1";
+	private static final String SELECT_IMPORT = "SELECT premier_candidat, premiere_competition FROM import_srz WHERE empreinte = ?";
+	private static final String INSERT_IMPORT = "INSERT INTO import_srz(empreinte, premier_candidat, premiere_competition) VALUES (?, ?, ?)";
+	private static final String UPDATE_IMPORT = "UPDATE import_srz SET termine_le = NOW() WHERE empreinte = ?";
+	private static final String SELECT_BLOCS = "SELECT etape, bloc FROM import_srz_bloc WHERE empreinte = ?";
+	private static final String INSERT_BLOC = "INSERT INTO import_srz_bloc(empreinte, etape, bloc) VALUES (?, ?, ?)";
+
+	private final String fichier;
+	private final int taille, threads;
+	private String empreinte;
+	private final List<Personne> personnes = new ArrayList<>();
+	private final List<Equipe> equipes = new ArrayList<>();
+	private final List<Competition> competitions = new ArrayList<>();
+	private final List<int[]> membres = new ArrayList<>(), inscrits = new ArrayList<>();
+	private final Map<Object, Integer> ids = new IdentityHashMap<>();
+	private final Set<String> faits = new HashSet<>();
+	private int blocsFaits;
+
+	/**
+	 * @param fichier
+	 * @param taille nombre de lignes insérées par transaction.
+	 * @param threads nombre de blocs insérés en parallèle.
+	 */
+
+	public MigrationSrz(String fichier, int taille, int threads)
+	{
+		if (taille < 1 || threads < 1)
+			throw new IllegalArgumentException("Taille ou nombre de threads invalide : " + taille + ", " + threads);
+		this.fichier = fichier;
+		this.taille = taille;
+		this.threads = threads;
+	}
+
+	/**
+	 * Migre le fichier donné en argument, Inscriptions.srz par défaut. Les
+	 * propriétés système bdd.import.taille et bdd.import.threads donnent la
+	 * taille des blocs et le nombre de blocs insérés en parallèle.
+	 * @param args
+	 */
+
+	public static void main(String[] args)
+	{
+		MigrationSrz migration = new MigrationSrz(args.length > 0 ? args[0] : "Inscriptions.srz",
+				Integer.getInteger("bdd.import.taille", 1000), Integer.getInteger("bdd.import.threads", 4));
+		try
+		{
+			if (!migration.migrer())
+				System.exit(1);
+		}
+		catch (IOException | ClassNotFoundException | SQLException | InterruptedException | ExecutionException e)
+		{
+			e.printStackTrace();
+			System.exit(2);
+		}
+	}
+
+	/**
+	 * Migre le fichier, ou reprend sa migration interrompue.
+	 * @return vrai si la base contient toutes les lignes du fichier.
+	 * @throws IOException si le fichier est illisible.
+	 * @throws ClassNotFoundException si le fichier ne contient pas une inscription.
+	 * @throws SQLException
+	 * @throws InterruptedException
+	 * @throws ExecutionException si l'insertion d'un bloc a échoué.
+	 */
+
+	public boolean migrer() throws IOException, ClassNotFoundException, SQLException, InterruptedException, ExecutionException
+	{
+		empreinte = empreinte(fichier);
+		lire();
+		Migrations.demarrer();
+		attribuerIds();
+		System.out.println(personnes.size() + " personnes, " + equipes.size() + " équipes, " + competitions.size()
+				+ " compétitions, " + membres.size() + " membres, " + inscrits.size() + " inscriptions à migrer");
+		ExecutorService executeur = Executors.newFixedThreadPool(threads);
+		try
+		{
+			List<Future<?>> etape = new ArrayList<>();
+			List<Candidat> candidats = new ArrayList<>(personnes);
+			candidats.addAll(equipes);
+			inserer(executeur, etape, "candidat", INSERT_CANDIDAT, candidats,
+					c -> new Object[] {ids.get(c), c.getNom()});
+			inserer(executeur, etape, "competition", INSERT_COMPETITION, competitions,
+					c -> new Object[] {ids.get(c), c.getDateCloture() == null ? null : java.sql.Date.valueOf(c.getDateCloture()),
+							c.getNom(), c.estEnEquipe() ? 1 : 0});
+			attendre(etape);
+			inserer(executeur, etape, "personne", INSERT_PERSONNE, personnes,
+					p -> new Object[] {ids.get(p), p.getPrenom(), p.getMail(), p.getNom()});
+			inserer(executeur, etape, "equipe", INSERT_EQUIPE, equipes, e -> new Object[] {ids.get(e), e.getNom()});
+			attendre(etape);
+			inserer(executeur, etape, "toequipe", INSERT_TOEQUIPE, membres, lien -> new Object[] {lien[0], lien[1]});
+			inserer(executeur, etape, "tocompetition", INSERT_TOCOMPETITION, inscrits, lien -> new Object[] {lien[0], lien[1]});
+			attendre(etape);
+		}
+		finally
+		{
+			executeur.shutdownNow();
+		}
+		return verifier();
+	}
+
+	/**
+	 * Retourne l'empreinte SHA-256 du fichier, qui identifie sa migration.
+	 */
+
+	private static String empreinte(String fichier) throws IOException
+	{
+		try (InputStream in = Files.newInputStream(Paths.get(fichier))) {
+			MessageDigest sha = MessageDigest.getInstance("SHA-256");
+			byte[] tampon = new byte[1 << 16];
+			for (int lus; (lus = in.read(tampon)) > 0; )
+				sha.update(tampon, 0, lus);
+			StringBuilder hexa = new StringBuilder();
+			for (byte octet : sha.digest())
+				hexa.append(String.format("%02x", octet));
+			return hexa.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Relit l'inscription sur un stockage en mémoire, qui ne lit ni n'écrit
+	 * rien en base, et relève ses objets et ses liens dans un ordre stable.
+	 */
+
+	private void lire() throws IOException, ClassNotFoundException
+	{
+		Inscriptions inscription = Inscriptions.lire(fichier, new MemoryStorage());
+		personnes.addAll(inscription.getPersonnes());
+		equipes.addAll(inscription.getEquipes());
+		competitions.addAll(inscription.getCompetitions());
+	}
+
+	/**
+	 * Reprend les ids réservés par une exécution précédente sur le même
+	 * fichier, ou les réserve, puis relève les liens entre objets migrés.
+	 */
+
+	private void attribuerIds() throws SQLException
+	{
+		int premierCandidat, premiereCompetition;
+		try (Connection cn = Connect.getConnection()) {
+			Connect.executer(cn, CREATE_IMPORT);
+			Connect.executer(cn, CREATE_IMPORT_BLOC);
+			try (PreparedStatement st = cn.prepareStatement(SELECT_IMPORT)) {
+				st.setString(1, empreinte);
+				try (ResultSet result = st.executeQuery()) {
+					if (result.next())
+					{
+						premierCandidat = result.getInt(1);
+						premiereCompetition = result.getInt(2);
+					}
+					else
+					{
+						premierCandidat = Connect.candidats.reserverPlage(Math.max(1, personnes.size() + equipes.size()));
+						premiereCompetition = Connect.competitions.reserverPlage(Math.max(1, competitions.size()));
+						Connect.executer(cn, INSERT_IMPORT, empreinte, premierCandidat, premiereCompetition);
+					}
+				}
+			}
+			try (PreparedStatement st = cn.prepareStatement(SELECT_BLOCS)) {
+				st.setString(1, empreinte);
+				try (ResultSet result = st.executeQuery()) {
+					while (result.next())
+						faits.add(result.getString(1) + ":" + result.getInt(2));
+				}
+			}
+		}
+		int id = premierCandidat;
+		for (Personne personne : personnes)
+			ids.put(personne, id++);
+		for (Equipe equipe : equipes)
+			ids.put(equipe, id++);
+		id = premiereCompetition;
+		for (Competition competition : competitions)
+			ids.put(competition, id++);
+		for (Equipe equipe : equipes)
+			for (Personne membre : equipe.getMembres())
+				if (ids.containsKey(membre))
+					membres.add(new int[] {ids.get(membre), ids.get(equipe)});
+		for (Competition competition : competitions)
+			for (Candidat candidat : competition.getCandidats())
+				if (ids.containsKey(candidat))
+					inscrits.add(new int[] {ids.get(candidat), ids.get(competition)});
+	}
+
+	/**
+	 * Soumet l'insertion des blocs pas encore faits d'une table.
+	 */
+
+	private <T> void inserer(ExecutorService executeur, List<Future<?>> etape, String table, String requete,
+			List<T> objets, Function<T, Object[]> parametres)
+	{
+		for (int debut = 0, bloc = 0; debut < objets.size(); debut += taille, bloc++)
+		{
+			if (faits.contains(table + ":" + bloc))
+				continue;
+			List<T> lignes = objets.subList(debut, Math.min(objets.size(), debut + taille));
+			int numero = bloc;
+			etape.add(executeur.submit(() -> {
+				List<Object[]> valeurs = new ArrayList<>(lignes.size());
+				for (T objet : lignes)
+					valeurs.add(parametres.apply(objet));
+				try (Connection cn = Connect.getConnection()) {
+					cn.setAutoCommit(false);
+					Connect.executerLot(cn, requete, valeurs);
+					Connect.executer(cn, INSERT_BLOC, empreinte, table, numero);
+					cn.commit();
+				}
+				Routage.getRoutage().ecrite();
+				return null;
+			}));
+		}
+	}
+
+	/**
+	 * Attend la fin des blocs d'une étape avant de passer à la suivante.
+	 */
+
+	private void attendre(List<Future<?>> etape) throws InterruptedException, ExecutionException
+	{
+		for (Future<?> bloc : etape)
+		{
+			bloc.get();
+			if (++blocsFaits % 10 == 0)
+				System.out.println(blocsFaits + " blocs insérés");
+		}
+		etape.clear();
+	}
+
+	/**
+	 * Compte les lignes migrées de chaque table et les compare au fichier.
+	 * @return vrai si toutes y sont.
+	 */
+
+	private boolean verifier() throws SQLException
+	{
+		int premierCandidat = Integer.MAX_VALUE, premiereCompetition = Integer.MAX_VALUE;
+		for (Map.Entry<Object, Integer> id : ids.entrySet())
+			if (id.getKey() instanceof Candidat)
+				premierCandidat = Math.min(premierCandidat, id.getValue());
+			else
+				premiereCompetition = Math.min(premiereCompetition, id.getValue());
+		int dernierCandidat = premierCandidat + personnes.size() + equipes.size() - 1,
+				derniereCompetition = premiereCompetition + competitions.size() - 1;
+		boolean complete;
+		try (Connection cn = Connect.getConnection()) {
+			complete = compter(cn, "candidat", "id_candidat", premierCandidat, dernierCandidat, personnes.size() + equipes.size())
+					& compter(cn, "personne", "id_personne", premierCandidat, dernierCandidat, personnes.size())
+					& compter(cn, "equipe", "id_equipe", premierCandidat, dernierCandidat, equipes.size())
+					& compter(cn, "competition", "id_competition", premiereCompetition, derniereCompetition, competitions.size())
+					& compter(cn, "toequipe", "id_equipe", premierCandidat, dernierCandidat, membres.size())
+					& compter(cn, "tocompetition", "id_competition", premiereCompetition, derniereCompetition, inscrits.size());
+			if (complete)
+				Connect.executer(cn, UPDATE_IMPORT, empreinte);
+		}
+		System.out.println(complete ? "Migration terminée." : "Migration incomplète : relancer pour reprendre.");
+		return complete;
+	}
+
+	private static boolean compter(Connection cn, String table, String colonneId, int premier, int dernier, int attendues)
+			throws SQLException
+	{
+		try (PreparedStatement st = cn.prepareStatement("SELECT COUNT(*) FROM " + table + " WHERE " + colonneId
+				+ " BETWEEN ? AND ?")) {
+			st.setInt(1, premier);
+			st.setInt(2, dernier);
+			try (ResultSet result = st.executeQuery()) {
+				result.next();
+				int lignes = result.getInt(1);
+				System.out.println(table + " : " + lignes + " / " + attendues);
+				return lignes == attendues;
+			}
+		}
+	}
+}
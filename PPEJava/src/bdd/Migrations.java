@@ -0,0 +1,232 @@
+package bdd;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mise à jour du schéma de la base au démarrage. Chaque migration a un
+ * numéro de version et n'est appliquée qu'une fois : les versions appliquées
+ * sont notées dans la table schema_version. Une base créée par
+ * competition.sql les a déjà toutes, une base plus ancienne est mise au
+ * niveau du code.
+ *
+ * Une requête déjà appliquée (colonne, index, clé ou table qui existe déjà)
+ * est ignorée : une migration interrompue peut être reprise, et une base
+ * partiellement à jour sans schema_version peut être migrée depuis le début.
+ * Les instances qui démarrent ensemble migrent chacune à leur tour, sous un
+ * verrou du serveur.
+ */
+
+public final class Migrations
+{
+	/**
+	 * Étape d'une migration.
+	 */
+
+	@FunctionalInterface
+	interface Etape
+	{
+		void appliquer(Connection cn) throws SQLException;
+	}
+
+	/**
+	 * Migration d'une version à la suivante.
+	 */
+
+	static final class Migration
+	{
+		final int version;
+		final String description;
+		final List<Etape> etapes;
+
+		Migration(int version, String description, Etape... etapes)
+		{
+			this.version = version;
+			this.description = description;
+			this.etapes = Arrays.asList(etapes);
+		}
+	}
+
+	/**
+	 * Erreurs MySQL d'une requête déjà appliquée : table, colonne, index ou
+	 * clé primaire qui existe déjà, index à supprimer absent, clé étrangère
+	 * qui existe déjà.
+	 */
+
+	private static final Set<Integer> DEJA_APPLIQUEE = new HashSet<>(Arrays.asList(1050, 1060, 1061, 1068, 1091, 1022, 1826));
+	private static final String VERROU = "competition.migrations";
+	private static final int ATTENTE_VERROU = 60;
+
+	static final List<Migration> MIGRATIONS = Collections.unmodifiableList(Arrays.asList(
+			new Migration(1, "Colonnes de version, de date et de suppression, tables sequence et change_log", requetes(
+					"ALTER TABLE personne ADD COLUMN version INT NOT NULL DEFAULT 0",
+					"ALTER TABLE personne ADD COLUMN updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)",
+					"ALTER TABLE personne ADD COLUMN deleted_at DATETIME DEFAULT NULL",
+					"ALTER TABLE personne ADD KEY updated_at (updated_at)",
+					"ALTER TABLE personne ADD KEY nom (deleted_at, nom, id_personne)",
+					"ALTER TABLE equipe ADD COLUMN version INT NOT NULL DEFAULT 0",
+					"ALTER TABLE equipe ADD COLUMN updated_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)",
+					"ALTER TABLE equipe ADD COLUMN deleted_at DATETIME DEFAULT NULL",
+					"ALTER TABLE equipe ADD KEY updated_at (updated_at)",
+					"ALTER TABLE equipe ADD KEY nom (deleted_at, nom, id_equipe)",
+					"ALTER TABLE competition ADD COLUMN version INT NOT NULL DEFAULT 0",
+					"ALTER TABLE competition ADD COLUMN deleted_at DATETIME DEFAULT NULL",
+					"ALTER TABLE competition ADD KEY nom (deleted_at, nom_competition, id_competition)",
+					"CREATE TABLE IF NOT EXISTS sequence (nom VARCHAR(32) NOT NULL, valeur INT NOT NULL, "
+							+ "PRIMARY KEY (nom)) ENGINE=InnoDB DEFAULT CHARSET=latin1",
+					"CREATE TABLE IF NOT EXISTS change_log (numero BIGINT NOT NULL AUTO_INCREMENT, entite CHAR(1) NOT NULL, "
+							+ "id INT NOT NULL, id_lie INT DEFAULT NULL, operation CHAR(1) NOT NULL, origine INT NOT NULL, "
+							+ "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, PRIMARY KEY (numero), "
+							+ "KEY created_at (created_at)) ENGINE=InnoDB DEFAULT CHARSET=latin1")),
+			new Migration(2, "Clé primaire de equipe", requetes(
+					"ALTER TABLE equipe ADD PRIMARY KEY (id_equipe)",
+					"ALTER TABLE equipe DROP INDEX id_equipe")),
+			new Migration(3, "Tables de liaison toequipe et tocompetition avec clés primaires composées", requetes(
+					"CREATE TABLE IF NOT EXISTS toequipe (id_personne INT NOT NULL, id_equipe INT NOT NULL)",
+					"CREATE TABLE IF NOT EXISTS tocompetition (id_candidat INT NOT NULL, id_competition INT NOT NULL)",
+					"DROP TABLE IF EXISTS toequipe_migration, tocompetition_migration",
+					"CREATE TABLE toequipe_migration (id_personne INT NOT NULL, id_equipe INT NOT NULL, "
+							+ "PRIMARY KEY (id_equipe, id_personne), KEY id_personne (id_personne)) ENGINE=InnoDB DEFAULT CHARSET=latin1",
+					"CREATE TABLE tocompetition_migration (id_candidat INT NOT NULL, id_competition INT NOT NULL, "
+							+ "PRIMARY KEY (id_competition, id_candidat), KEY id_candidat (id_candidat)) ENGINE=InnoDB DEFAULT CHARSET=latin1",
+					"INSERT IGNORE INTO toequipe_migration SELECT t.id_personne, t.id_equipe FROM toequipe t "
+							+ "JOIN personne p ON p.id_personne = t.id_personne JOIN equipe e ON e.id_equipe = t.id_equipe",
+					"INSERT IGNORE INTO tocompetition_migration SELECT t.id_candidat, t.id_competition FROM tocompetition t "
+							+ "JOIN candidat c ON c.id_candidat = t.id_candidat JOIN competition co ON co.id_competition = t.id_competition"),
+					siTable("appartenir",
+					"INSERT IGNORE INTO toequipe_migration SELECT a.id_personne, a.id_equipe FROM appartenir a "
+							+ "JOIN personne p ON p.id_personne = a.id_personne JOIN equipe e ON e.id_equipe = a.id_equipe"),
+					siTable("inscrire",
+					"INSERT IGNORE INTO tocompetition_migration SELECT i.id_candidat, i.id_competition FROM inscrire i "
+							+ "JOIN candidat c ON c.id_candidat = i.id_candidat JOIN competition co ON co.id_competition = i.id_competition"),
+					requetes(
+					"RENAME TABLE toequipe TO toequipe_ancienne, toequipe_migration TO toequipe, "
+							+ "tocompetition TO tocompetition_ancienne, tocompetition_migration TO tocompetition",
+					"DROP TABLE toequipe_ancienne, tocompetition_ancienne")),
+			new Migration(4, "Clés étrangères des tables de liaison", requetes(
+					"ALTER TABLE toequipe ADD CONSTRAINT toequipe_personne FOREIGN KEY (id_personne) REFERENCES personne (id_personne), "
+							+ "ADD CONSTRAINT toequipe_equipe FOREIGN KEY (id_equipe) REFERENCES equipe (id_equipe)",
+					"ALTER TABLE tocompetition ADD CONSTRAINT tocompetition_candidat FOREIGN KEY (id_candidat) REFERENCES candidat (id_candidat), "
+							+ "ADD CONSTRAINT tocompetition_competition FOREIGN KEY (id_competition) REFERENCES competition (id_competition)")),
+			new Migration(5, "Index sur personne.mail et competition.date_debut", requetes(
+					"ALTER TABLE personne ADD KEY mail (mail)",
+					"ALTER TABLE competition ADD KEY date_debut (date_debut)"))));
+
+	private static boolean faites;
+
+	private Migrations()
+	{
+	}
+
+	/**
+	 * Migre la base principale au premier appel, sauf si la propriété
+	 * système bdd.migrations vaut false. Un échec est affiché sans empêcher
+	 * le démarrage.
+	 */
+
+	static synchronized void demarrer()
+	{
+		if (faites || !Boolean.parseBoolean(System.getProperty("bdd.migrations", "true")))
+			return;
+		faites = true;
+		try (Connection cn = Connect.getConnection()) {
+			migrer(cn);
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Applique dans l'ordre les migrations pas encore appliquées.
+	 * @param cn
+	 * @return le nombre de migrations appliquées.
+	 * @throws SQLException si une migration a échoué : elle n'est pas notée
+	 * appliquée, ni les suivantes.
+	 */
+
+	public static int migrer(Connection cn) throws SQLException
+	{
+		try (Statement st = cn.createStatement()) {
+			st.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version (version INT NOT NULL, "
+					+ "description VARCHAR(255) NOT NULL, applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+					+ "PRIMARY KEY (version)) ENGINE=InnoDB DEFAULT CHARSET=latin1");
+			try (ResultSet result = st.executeQuery("SELECT GET_LOCK('" + VERROU + "', " + ATTENTE_VERROU + ")")) {
+				if (!result.next() || result.getInt(1) != 1)
+					throw new SQLException("Migrations déjà en cours sur une autre instance");
+			}
+			try {
+				int version = versionCourante(st), appliquees = 0;
+				for (Migration migration : MIGRATIONS)
+					if (migration.version > version)
+					{
+						for (Etape etape : migration.etapes)
+							etape.appliquer(cn);
+						Connect.executer(cn, "INSERT INTO schema_version(version, description) VALUES (?, ?)",
+								migration.version, migration.description);
+						appliquees++;
+					}
+				return appliquees;
+			} finally {
+				st.executeQuery("SELECT RELEASE_LOCK('" + VERROU + "')").close();
+			}
+		}
+	}
+
+	private static int versionCourante(Statement st) throws SQLException
+	{
+		try (ResultSet result = st.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+			result.next();
+			return result.getInt(1);
+		}
+	}
+
+	/**
+	 * Retourne une étape qui exécute les requêtes dans l'ordre, en ignorant
+	 * celles déjà appliquées.
+	 * @param requetes
+	 * @return
+	 */
+
+	static Etape requetes(String... requetes)
+	{
+		return cn -> {
+			try (Statement st = cn.createStatement()) {
+				for (String requete : requetes)
+				{
+					try {
+						st.executeUpdate(requete);
+					} catch (SQLException e) {
+						if (!DEJA_APPLIQUEE.contains(e.getErrorCode()))
+							throw e;
+					}
+				}
+			}
+		};
+	}
+
+	/**
+	 * Retourne une étape qui exécute les requêtes si la table existe.
+	 * @param table
+	 * @param requetes
+	 * @return
+	 */
+
+	static Etape siTable(String table, String... requetes)
+	{
+		Etape etape = requetes(requetes);
+		return cn -> {
+			try (ResultSet result = cn.getMetaData().getTables(cn.getCatalog(), null, table, new String[] {"TABLE"})) {
+				if (!result.next())
+					return;
+			}
+			etape.appliquer(cn);
+		};
+	}
+}
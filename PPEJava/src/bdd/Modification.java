@@ -0,0 +1,187 @@
+package bdd;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import inscriptions.Entite;
+
+/**
+ * Mise à jour des seules colonnes modifiées d'un objet dans une table. Les
+ * champs modifiés sont relevés à l'exécution, pas à la création : une
+ * modification faite entre-temps est écrite avec, et une mise à jour sans
+ * champ modifié n'envoie rien. Les mises à jour des mêmes colonnes d'une
+ * même table ont la même requête et partent donc en un seul lot.
+ *
+ * Une modification versionnée n'est faite que si l'objet a encore en base
+ * la version sous laquelle il a été lu, et incrémente celle-ci. Sinon une
+ * {@link ConflitException} est levée, ce qui annule la transaction. Les
+ * champs d'une modification qui n'a pas été validée sont rendus à l'objet
+ * (voir {@link Connect#echouee}).
+ */
+
+class Modification implements Ecriture
+{
+	private final Object cle;
+	private final String table, colonneId;
+	private final Entite entite;
+	private final Supplier<Set<String>> champs;
+	private final Map<String, String> colonnes;
+	private final Function<String, Object> valeurs;
+	private final boolean versionnee;
+	private List<String> modifies;
+	private String requete;
+	private int version;
+	private boolean validee;
+
+	/**
+	 * @param cle clé de fusion.
+	 * @param table
+	 * @param colonneId
+	 * @param entite
+	 * @param champs les champs modifiés de l'objet, relevés une seule fois.
+	 * @param colonnes la colonne de chaque champ écrit dans cette table.
+	 * @param valeurs la valeur à écrire de chaque champ.
+	 * @param versionnee vrai pour la table qui porte la colonne version.
+	 */
+
+	Modification(Object cle, String table, String colonneId, Entite entite, Supplier<Set<String>> champs,
+			Map<String, String> colonnes, Function<String, Object> valeurs, boolean versionnee)
+	{
+		this.cle = cle;
+		this.table = table;
+		this.colonneId = colonneId;
+		this.entite = entite;
+		this.champs = champs;
+		this.colonnes = colonnes;
+		this.valeurs = valeurs;
+		this.versionnee = versionnee;
+	}
+
+	/**
+	 * Retourne les champs modifiés d'un objet, relevés au premier appel puis
+	 * retournés tels quels : les mises à jour d'un même objet dans plusieurs
+	 * tables écrivent ainsi les mêmes champs.
+	 * @param extraction
+	 * @return
+	 */
+
+	static Supplier<Set<String>> partagee(Supplier<Set<String>> extraction)
+	{
+		return new Supplier<Set<String>>()
+		{
+			private Set<String> champs;
+
+			@Override
+			public synchronized Set<String> get()
+			{
+				if (champs == null)
+					champs = extraction.get();
+				return champs;
+			}
+		};
+	}
+
+	private synchronized void preparer()
+	{
+		if (modifies != null)
+			return;
+		modifies = new ArrayList<>();
+		StringBuilder colonnesModifiees = new StringBuilder();
+		for (Map.Entry<String, String> colonne : colonnes.entrySet())
+			if (champs.get().contains(colonne.getKey()))
+			{
+				modifies.add(colonne.getKey());
+				if (colonnesModifiees.length() > 0)
+					colonnesModifiees.append(", ");
+				colonnesModifiees.append(colonne.getValue()).append(" = ?");
+			}
+		if (modifies.isEmpty())
+			return;
+		if (versionnee)
+		{
+			version = entite.getVersion();
+			requete = "UPDATE " + table + " SET " + colonnesModifiees + ", version = version + 1 WHERE "
+					+ colonneId + " = ? AND version = ?";
+		}
+		else
+			requete = "UPDATE " + table + " SET " + colonnesModifiees + " WHERE " + colonneId + " = ?";
+	}
+
+	@Override
+	public void executer(Connection cn) throws SQLException
+	{
+		if (getRequete() != null)
+			executee(Connect.executer(cn, requete, getParametres()));
+	}
+
+	/**
+	 * Lève une {@link ConflitException} si la ligne n'avait plus la version
+	 * lue.
+	 */
+
+	@Override
+	public void executee(int lignes)
+	{
+		if (versionnee && lignes == 0)
+			throw new ConflitException(entite);
+	}
+
+	@Override
+	public void validee()
+	{
+		validee = true;
+		if (versionnee && requete != null)
+			entite.setVersion(version + 1);
+	}
+
+	/**
+	 * Si l'écriture n'a pas été validée, rend ses champs à l'objet. Ce peut
+	 * être sur le thread d'écriture différée : ils ne sont notés modifiés
+	 * qu'ensuite, par le thread appelant.
+	 */
+
+	@Override
+	public void terminee()
+	{
+		if (requete != null && !validee)
+			Connect.echouee(entite, modifies);
+	}
+
+	@Override
+	public Object getCle()
+	{
+		return cle;
+	}
+
+	@Override
+	public String getRequete()
+	{
+		preparer();
+		return requete;
+	}
+
+	@Override
+	public Object[] getParametres()
+	{
+		preparer();
+		Object[] parametres = new Object[modifies.size() + (versionnee ? 2 : 1)];
+		for (int i = 0; i < modifies.size(); i++)
+			parametres[i] = valeurs.apply(modifies.get(i));
+		parametres[modifies.size()] = entite.getId();
+		if (versionnee)
+			parametres[modifies.size() + 1] = version;
+		return parametres;
+	}
+
+	@Override
+	public boolean estModification()
+	{
+		return true;
+	}
+}
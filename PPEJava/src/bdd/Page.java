@@ -0,0 +1,142 @@
+package bdd;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Page d'une liste triée par nom puis par id. La page suivante est lue à
+ * partir du curseur de celle-ci, qui retient le nom et l'id du dernier
+ * élément : la lecture d'une page coûte la même chose quelle que soit sa
+ * position dans la liste, sans compter les éléments qui la précèdent.
+ * @param <T>
+ */
+
+public final class Page<T>
+{
+	private final List<T> elements;
+	private final String suivante;
+
+	private Page(List<T> elements, String suivante)
+	{
+		this.elements = Collections.unmodifiableList(elements);
+		this.suivante = suivante;
+	}
+
+	/**
+	 * Retourne les éléments de la page, dans l'ordre.
+	 * @return
+	 */
+
+	public List<T> getElements()
+	{
+		return elements;
+	}
+
+	/**
+	 * Retourne le curseur de la page suivante, null si c'est la dernière.
+	 * @return
+	 */
+
+	public String getSuivante()
+	{
+		return suivante;
+	}
+
+	public boolean estDerniere()
+	{
+		return suivante == null;
+	}
+
+	/**
+	 * Construit une page à partir des éléments lus, au plus taille + 1 :
+	 * le dernier ne sert qu'à savoir s'il y a une page suivante.
+	 * @param lus
+	 * @param taille
+	 * @param nom
+	 * @param id
+	 * @return
+	 */
+
+	static <T> Page<T> de(List<T> lus, int taille, Function<? super T, String> nom, ToIntFunction<? super T> id)
+	{
+		if (lus.size() <= taille)
+			return new Page<>(lus, null);
+		List<T> elements = new ArrayList<>(lus.subList(0, taille));
+		T dernier = elements.get(taille - 1);
+		return new Page<>(elements, curseur(nom.apply(dernier), id.applyAsInt(dernier)));
+	}
+
+	/**
+	 * Construit une page à partir des éléments qui suivent le curseur, dans
+	 * l'ordre : seuls les taille + 1 premiers sont parcourus.
+	 * @param suivants
+	 * @param taille
+	 * @param nom
+	 * @param id
+	 * @return
+	 */
+
+	public static <T> Page<T> de(Iterator<T> suivants, int taille, Function<? super T, String> nom, ToIntFunction<? super T> id)
+	{
+		List<T> lus = new ArrayList<>();
+		while (lus.size() <= taille && suivants.hasNext())
+			lus.add(suivants.next());
+		return de(lus, taille, nom, id);
+	}
+
+	/**
+	 * Retourne le curseur qui désigne l'élément de nom et d'id donnés.
+	 * @param nom
+	 * @param id
+	 * @return
+	 */
+
+	public static String curseur(String nom, int id)
+	{
+		return Base64.getUrlEncoder().encodeToString((id + ":" + nom).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Retourne le nom retenu par un curseur, "" pour la première page.
+	 * @param curseur
+	 * @return
+	 * @throws IllegalArgumentException si le curseur n'a pas été retourné par une page.
+	 */
+
+	public static String nom(String curseur)
+	{
+		if (curseur == null)
+			return "";
+		String decode = decoder(curseur);
+		return decode.substring(decode.indexOf(':') + 1);
+	}
+
+	/**
+	 * Retourne l'id retenu par un curseur, 0 pour la première page.
+	 * @param curseur
+	 * @return
+	 * @throws IllegalArgumentException si le curseur n'a pas été retourné par une page.
+	 */
+
+	public static int id(String curseur)
+	{
+		if (curseur == null)
+			return 0;
+		String decode = decoder(curseur);
+		return Integer.parseInt(decode.substring(0, decode.indexOf(':')));
+	}
+
+	private static String decoder(String curseur)
+	{
+		String decode = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+		if (decode.indexOf(':') < 0)
+			throw new IllegalArgumentException("Curseur invalide : " + curseur);
+		return decode;
+	}
+}
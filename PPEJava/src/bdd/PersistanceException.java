@@ -0,0 +1,21 @@
+package bdd;
+
+/**
+ * Erreur de la base remontée aux appelants qui doivent pouvoir y réagir,
+ * par exemple pour annuler une transaction.
+ */
+
+public class PersistanceException extends RuntimeException
+{
+	private static final long serialVersionUID = 2906516423153419032L;
+
+	public PersistanceException(String message, Throwable cause)
+	{
+		super(message, cause);
+	}
+
+	public PersistanceException(Throwable cause)
+	{
+		super(cause);
+	}
+}
@@ -0,0 +1,67 @@
+package bdd;
+
+/**
+ * Requêtes SQL de l'application. Chacune est préparée une seule fois
+ * par connexion du pool (voir {@link StatementCache}). Le %s des requêtes
+ * IN est remplacé par la liste de paramètres (voir {@link Connect#dans}).
+ * Les requêtes _PAGE lisent à partir d'un nom et d'un id exclus (voir
+ * {@link Page}), en suivant les index (deleted_at, nom, id) ; les requêtes
+ * _PREMIERE_PAGE lisent la première, sans curseur. Un lien déjà
+ * enregistré n'est pas inséré une seconde fois (clés primaires des tables
+ * de liaison, voir {@link Migrations}).
+ */
+
+final class Requetes
+{
+	static final String SELECT_PERSONNE = "SELECT * FROM personne WHERE deleted_at IS NULL";
+	static final String SELECT_COMPETITION = "SELECT * FROM competition WHERE deleted_at IS NULL";
+	static final String SELECT_EQUIPE = "SELECT * FROM equipe e, candidat c WHERE e.id_equipe = c.id_candidat AND e.deleted_at IS NULL";
+	static final String SELECT_PERSONNE_ID = "SELECT * FROM personne WHERE id_personne = ? AND deleted_at IS NULL";
+	static final String SELECT_EQUIPE_ID = "SELECT * FROM equipe WHERE id_equipe = ? AND deleted_at IS NULL";
+	static final String SELECT_COMPETITION_ID = "SELECT * FROM competition WHERE id_competition = ? AND deleted_at IS NULL";
+	static final String SELECT_PERSONNE_IN = "SELECT * FROM personne WHERE id_personne IN (%s) AND deleted_at IS NULL";
+	static final String SELECT_EQUIPE_IN = "SELECT * FROM equipe WHERE id_equipe IN (%s) AND deleted_at IS NULL";
+	static final String SELECT_COMPETITION_IN = "SELECT * FROM competition WHERE id_competition IN (%s) AND deleted_at IS NULL";
+	static final String SELECT_TOCOMPETITION_CANDIDATS = "SELECT id_candidat, id_competition FROM tocompetition WHERE id_candidat IN (%s)";
+	static final String SELECT_TOCOMPETITION_COMPETITIONS = "SELECT id_competition, id_candidat FROM tocompetition WHERE id_competition IN (%s)";
+	static final String SELECT_TOEQUIPE_EQUIPES = "SELECT id_equipe, id_personne FROM toequipe WHERE id_equipe IN (%s)";
+	static final String SELECT_TOEQUIPE_PERSONNES = "SELECT id_personne, id_equipe FROM toequipe WHERE id_personne IN (%s)";
+	static final String SELECT_PERSONNE_DEPUIS = "SELECT id_personne, nom, prenom, mail, version, updated_at, deleted_at FROM personne WHERE updated_at >= ? ORDER BY updated_at";
+	static final String SELECT_EQUIPE_DEPUIS = "SELECT id_equipe, nom, version, updated_at, deleted_at FROM equipe WHERE updated_at >= ? ORDER BY updated_at";
+	static final String SELECT_TOEQUIPE = "SELECT id_personne, id_equipe FROM toequipe";
+	static final String SELECT_TOCOMPETITION = "SELECT id_candidat, id_competition FROM tocompetition";
+	static final String SELECT_PERSONNE_PREMIERE_PAGE = "SELECT * FROM personne WHERE deleted_at IS NULL ORDER BY nom, id_personne LIMIT ?";
+	static final String SELECT_EQUIPE_PREMIERE_PAGE = "SELECT * FROM equipe WHERE deleted_at IS NULL ORDER BY nom, id_equipe LIMIT ?";
+	static final String SELECT_COMPETITION_PREMIERE_PAGE = "SELECT * FROM competition WHERE deleted_at IS NULL ORDER BY nom_competition, id_competition LIMIT ?";
+	static final String SELECT_PERSONNE_PAGE = "SELECT * FROM personne WHERE deleted_at IS NULL AND (nom > ? OR (nom = ? AND id_personne > ?)) ORDER BY nom, id_personne LIMIT ?";
+	static final String SELECT_EQUIPE_PAGE = "SELECT * FROM equipe WHERE deleted_at IS NULL AND (nom > ? OR (nom = ? AND id_equipe > ?)) ORDER BY nom, id_equipe LIMIT ?";
+	static final String SELECT_COMPETITION_PAGE = "SELECT * FROM competition WHERE deleted_at IS NULL AND (nom_competition > ? OR (nom_competition = ? AND id_competition > ?)) ORDER BY nom_competition, id_competition LIMIT ?";
+	static final String SELECT_CHANGE_LOG = "SELECT numero, entite, id, id_lie, operation, origine FROM change_log WHERE numero > ? ORDER BY numero LIMIT ?";
+	static final String SELECT_CHANGE_LOG_MAX = "SELECT COALESCE(MAX(numero), 0) FROM change_log";
+
+	static final String INSERT_CANDIDAT = "INSERT INTO candidat(id_candidat, nom_candidat) VALUES (?, ?)";
+	static final String INSERT_PERSONNE = "INSERT INTO personne(id_personne, prenom, mail, nom) VALUES (?, ?, ?, ?)";
+	static final String INSERT_EQUIPE = "INSERT INTO equipe(id_equipe, nom) VALUES (?, ?)";
+	static final String INSERT_COMPETITION = "INSERT INTO competition(id_competition, date_debut, nom_competition, enEquipe) VALUES (?, ?, ?, ?)";
+	static final String INSERT_TOEQUIPE = "INSERT INTO toequipe(id_personne, id_equipe) VALUES (?, ?) ON DUPLICATE KEY UPDATE id_equipe = id_equipe";
+	static final String INSERT_TOCOMPETITION = "INSERT INTO tocompetition(id_candidat, id_competition) VALUES (?, ?) ON DUPLICATE KEY UPDATE id_competition = id_competition";
+	static final String INSERT_CHANGE_LOG = "INSERT INTO change_log(entite, id, id_lie, operation, origine) VALUES (?, ?, ?, ?, ?)";
+	static final String INSERT_SEQUENCE_CANDIDAT = "INSERT IGNORE INTO sequence(nom, valeur) SELECT 'candidat', COALESCE(MAX(id_candidat), 0) FROM candidat";
+	static final String INSERT_SEQUENCE_COMPETITION = "INSERT IGNORE INTO sequence(nom, valeur) SELECT 'competition', COALESCE(MAX(id_competition), 0) FROM competition";
+
+	static final String UPDATE_SEQUENCE = "UPDATE sequence SET valeur = LAST_INSERT_ID(valeur + ?) WHERE nom = ?";
+
+	static final String DELETE_PERSONNE = "UPDATE personne SET deleted_at = NOW() WHERE id_personne = ?";
+	static final String DELETE_EQUIPE = "UPDATE equipe SET deleted_at = NOW() WHERE id_equipe = ?";
+	static final String DELETE_COMPETITION = "UPDATE competition SET deleted_at = NOW() WHERE id_competition = ?";
+	static final String DELETE_TOEQUIPE = "DELETE FROM toequipe WHERE id_personne = ? AND id_equipe = ?";
+	static final String DELETE_TOCOMPETITION = "DELETE FROM tocompetition WHERE id_candidat = ? AND id_competition = ?";
+	static final String DELETE_CHANGE_LOG = "DELETE FROM change_log WHERE created_at < NOW() - INTERVAL ? SECOND";
+
+	static final String SHOW_REPLICA_STATUS = "SHOW REPLICA STATUS";
+	static final String SHOW_SLAVE_STATUS = "SHOW SLAVE STATUS";
+
+	private Requetes()
+	{
+	}
+}
@@ -0,0 +1,260 @@
+package bdd;
+
+import static bdd.Requetes.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Répartition des connexions entre la base principale et ses répliques.
+ * Les écritures, et les lectures qui doivent voir ce qui vient d'être
+ * écrit, passent par la base principale ({@link #ecriture()}). Les lectures
+ * qui tolèrent un léger retard ({@link #lecture()}) sont réparties à tour
+ * de rôle entre les répliques à jour.
+ *
+ * Le retard de chaque réplique est relevé périodiquement. Une réplique
+ * injoignable, dont la réplication est arrêtée ou dont le retard dépasse
+ * {@code retardMax} n'est plus utilisée, et l'est de nouveau dès qu'elle
+ * a rattrapé son retard. Elle ne l'est pas non plus tant qu'elle peut ne
+ * pas avoir reçu la dernière écriture validée par l'application. Sans
+ * réplique à jour, la lecture passe par la base principale.
+ *
+ * Une réplique sur laquelle aucune réplication n'est configurée, comme une
+ * seconde base locale pour les essais, est considérée sans retard.
+ */
+
+public class Routage
+{
+	/**
+	 * Précision du retard relevé, en secondes entières par le serveur.
+	 */
+
+	private static final long PRECISION = 1000;
+	private static Routage routage;
+
+	private final ConnectionPool principale;
+	private final List<Replique> repliques;
+	private final long retardMax;
+	private final AtomicInteger tour = new AtomicInteger();
+	private final ScheduledExecutorService verification;
+	private volatile long derniereEcriture;
+
+	/**
+	 * @param principale
+	 * @param repliques
+	 * @param retardMax retard (ms) au-delà duquel une réplique n'est plus utilisée.
+	 * @param periode durée (ms) entre deux relevés du retard des répliques.
+	 */
+
+	public Routage(ConnectionPool principale, List<ConnectionPool> repliques, long retardMax, long periode)
+	{
+		this.principale = principale;
+		List<Replique> liste = new ArrayList<>();
+		for (ConnectionPool replique : repliques)
+			liste.add(new Replique(replique));
+		this.repliques = Collections.unmodifiableList(liste);
+		this.retardMax = retardMax;
+		if (liste.isEmpty())
+			verification = null;
+		else
+		{
+			verification = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "Routage-verification");
+				thread.setDaemon(true);
+				return thread;
+			});
+			verification.scheduleWithFixedDelay(this::verifier, 0, periode, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Retourne le routage de l'application : la base principale est celle
+	 * de {@link ConnectionPool#getPool()}, les répliques sont les urls,
+	 * séparées par des virgules, de la propriété système bdd.replicas.
+	 * Les propriétés bdd.replica.retardMax et bdd.replica.verification
+	 * donnent le retard maximum et la période des relevés.
+	 * @return
+	 */
+
+	public static synchronized Routage getRoutage()
+	{
+		if (routage == null)
+		{
+			List<ConnectionPool> repliques = new ArrayList<>();
+			for (String url : System.getProperty("bdd.replicas", "").split(","))
+				if (!url.trim().isEmpty())
+					repliques.add(ConnectionPool.creer(url.trim()));
+			routage = new Routage(ConnectionPool.getPool(), repliques,
+					Long.getLong("bdd.replica.retardMax", 5000L),
+					Long.getLong("bdd.replica.verification", 2000L));
+		}
+		return routage;
+	}
+
+	/**
+	 * Emprunte une connexion à la base principale.
+	 * @return
+	 * @throws SQLException
+	 */
+
+	public Connection ecriture() throws SQLException
+	{
+		return principale.getConnection();
+	}
+
+	/**
+	 * Emprunte une connexion à la prochaine réplique à jour, à la base
+	 * principale s'il n'y en a aucune.
+	 * @return
+	 * @throws SQLException
+	 */
+
+	public Connection lecture() throws SQLException
+	{
+		int nombre = repliques.size();
+		if (nombre > 0)
+		{
+			int premiere = Math.floorMod(tour.getAndIncrement(), nombre);
+			for (int i = 0; i < nombre; i++)
+			{
+				Replique replique = repliques.get((premiere + i) % nombre);
+				if (!replique.aJour(derniereEcriture, retardMax))
+					continue;
+				try
+				{
+					return replique.pool.getConnection();
+				}
+				catch (SQLException e)
+				{
+					replique.indisponible();
+				}
+			}
+		}
+		return principale.getConnection();
+	}
+
+	/**
+	 * Note qu'une écriture vient d'être validée sur la base principale :
+	 * les répliques ne sont plus utilisées avant de l'avoir reçue.
+	 */
+
+	public void ecrite()
+	{
+		derniereEcriture = System.currentTimeMillis();
+	}
+
+	/**
+	 * Retourne le nombre de répliques utilisables en ce moment.
+	 * @return
+	 */
+
+	public int getRepliquesAJour()
+	{
+		int aJour = 0;
+		for (Replique replique : repliques)
+			if (replique.aJour(derniereEcriture, retardMax))
+				aJour++;
+		return aJour;
+	}
+
+	private void verifier()
+	{
+		for (Replique replique : repliques)
+			replique.verifier();
+	}
+
+	/**
+	 * Arrête les relevés et ferme les pools des répliques.
+	 */
+
+	public void close()
+	{
+		if (verification != null)
+			verification.shutdownNow();
+		for (Replique replique : repliques)
+			replique.pool.close();
+	}
+
+	/**
+	 * Une réplique et son dernier retard relevé, -1 si elle est injoignable
+	 * ou si sa réplication est arrêtée.
+	 */
+
+	private static class Replique
+	{
+		final ConnectionPool pool;
+		volatile long retard = -1, releve;
+
+		Replique(ConnectionPool pool)
+		{
+			this.pool = pool;
+		}
+
+		void verifier()
+		{
+			long debut = System.currentTimeMillis();
+			long mesure;
+			try (Connection cn = pool.getConnection()) {
+				mesure = retard(cn);
+			} catch (SQLException e) {
+				mesure = -1;
+			}
+			releve = debut;
+			retard = mesure;
+		}
+
+		void indisponible()
+		{
+			retard = -1;
+		}
+
+		/**
+		 * Vrai si le retard relevé est acceptable et si la réplique avait
+		 * déjà, lors du relevé, reçu l'écriture de l'instant donné.
+		 * @param ecriture
+		 * @param retardMax
+		 * @return
+		 */
+
+		boolean aJour(long ecriture, long retardMax)
+		{
+			long mesure = retard;
+			return mesure >= 0 && mesure <= retardMax && ecriture < releve - mesure - PRECISION;
+		}
+
+		/**
+		 * Retourne le retard (ms) de la réplique : SHOW REPLICA STATUS depuis
+		 * MySQL 8.0.22, SHOW SLAVE STATUS avant.
+		 */
+
+		private static long retard(Connection cn) throws SQLException
+		{
+			try (Statement st = cn.createStatement()) {
+				ResultSet result;
+				String colonne;
+				try {
+					result = st.executeQuery(SHOW_REPLICA_STATUS);
+					colonne = "Seconds_Behind_Source";
+				} catch (SQLException e) {
+					result = st.executeQuery(SHOW_SLAVE_STATUS);
+					colonne = "Seconds_Behind_Master";
+				}
+				try (ResultSet status = result) {
+					if (!status.next())
+						return 0;
+					long secondes = status.getLong(colonne);
+					return status.wasNull() ? -1 : secondes * 1000;
+				}
+			}
+		}
+	}
+}
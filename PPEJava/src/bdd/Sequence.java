@@ -0,0 +1,105 @@
+package bdd;
+
+import static bdd.Requetes.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Attribution des ids par blocs (hi-lo) : un bloc d'ids est réservé dans
+ * la table sequence en une seule requête, puis ses ids sont attribués en
+ * mémoire. Un objet a donc son id dès sa création, avant d'être écrit, et
+ * ses lignes et celles de ses liens peuvent partir ensemble dans un lot.
+ *
+ * Les ids d'un bloc non utilisés avant l'arrêt de l'application sont
+ * perdus : les ids restent uniques mais ne se suivent plus forcément.
+ */
+
+class Sequence
+{
+	private final String nom, initialisation;
+	private final int bloc;
+	private int suivant, limite;
+
+	/**
+	 * @param nom nom de la ligne de la table sequence.
+	 * @param initialisation requête qui crée la ligne si elle n'existe pas,
+	 * à partir du plus grand id de la table.
+	 * @param bloc nombre d'ids réservés à la fois.
+	 */
+
+	Sequence(String nom, String initialisation, int bloc)
+	{
+		this.nom = nom;
+		this.initialisation = initialisation;
+		this.bloc = bloc;
+	}
+
+	/**
+	 * Retourne un id jamais attribué, en réservant un nouveau bloc quand le
+	 * précédent est épuisé.
+	 * @return
+	 * @throws PersistanceException si la réservation échoue.
+	 */
+
+	synchronized int suivant()
+	{
+		if (suivant == limite)
+		{
+			limite = reserver(bloc);
+			suivant = limite - bloc;
+		}
+		return ++suivant;
+	}
+
+	/**
+	 * Réserve d'un coup des ids consécutifs, pour un import en masse.
+	 * @param nombre
+	 * @return le premier id réservé.
+	 * @throws PersistanceException si la réservation échoue.
+	 */
+
+	int reserverPlage(int nombre)
+	{
+		return reserver(nombre) - nombre + 1;
+	}
+
+	private int reserver(int nombre)
+	{
+		try (Connection cn = Connect.getConnection()) {
+			int dernier = reserver(cn, nombre);
+			if (dernier == 0)
+			{
+				Connect.executer(cn, initialisation);
+				dernier = reserver(cn, nombre);
+			}
+			return dernier;
+		} catch (SQLException e) {
+			throw new PersistanceException("Réservation d'ids " + nom, e);
+		}
+	}
+
+	/**
+	 * Avance la séquence de nombre ids. LAST_INSERT_ID(expr) fait retourner
+	 * la nouvelle valeur comme clé générée, sans seconde requête.
+	 * @return la dernière valeur réservée, 0 si la ligne n'existe pas.
+	 */
+
+	private int reserver(Connection cn, int nombre) throws SQLException
+	{
+		try (PreparedStatement st = cn.prepareStatement(UPDATE_SEQUENCE, Statement.RETURN_GENERATED_KEYS)) {
+			st.setInt(1, nombre);
+			st.setString(2, nom);
+			if (st.executeUpdate() == 0)
+				return 0;
+			try (ResultSet rs = st.getGeneratedKeys()) {
+				if (!rs.next())
+					throw new SQLException("Aucune valeur retournée par la séquence " + nom);
+				return rs.getInt(1);
+			}
+		}
+	}
+}
@@ -0,0 +1,173 @@
+package bdd;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache des requêtes préparées d'une connexion physique. Une requête est
+ * préparée une seule fois par connexion puis réutilisée à chaque emprunt ;
+ * close() sur la requête rendue la remet dans le cache au lieu de la fermer.
+ *
+ * Les requêtes les moins récemment utilisées sont fermées au-delà de
+ * {@code taille} requêtes.
+ */
+
+class StatementCache
+{
+	private final Connection connexion;
+	private final Map<String, Cachee> requetes;
+
+	StatementCache(Connection connexion, int taille)
+	{
+		this.connexion = connexion;
+		this.requetes = new LinkedHashMap<String, Cachee>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Cachee> eldest)
+			{
+				if (size() <= taille)
+					return false;
+				eldest.getValue().evincer();
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Retourne la requête préparée pour sql, en la préparant si besoin.
+	 * @param sql
+	 * @param clesGenerees {@link Statement#RETURN_GENERATED_KEYS} ou {@link Statement#NO_GENERATED_KEYS}.
+	 * @param pretee la connexion du pool à retourner par getConnection().
+	 * @return
+	 * @throws SQLException
+	 */
+
+	PreparedStatement preparer(String sql, int clesGenerees, Connection pretee) throws SQLException
+	{
+		String cle = clesGenerees + sql;
+		Cachee cachee = requetes.get(cle);
+		if (cachee != null && cachee.utilisee)
+			return connexion.prepareStatement(sql, clesGenerees);
+		if (cachee == null)
+		{
+			cachee = new Cachee(connexion.prepareStatement(sql, clesGenerees));
+			requetes.put(cle, cachee);
+		}
+		cachee.utilisee = true;
+		return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+				new Class<?>[] {PreparedStatement.class}, new Rendue(cachee, pretee));
+	}
+
+	/**
+	 * Ferme toutes les requêtes du cache.
+	 */
+
+	void fermer()
+	{
+		for (Cachee cachee : requetes.values())
+			cachee.evincer();
+		requetes.clear();
+	}
+
+	private static class Cachee
+	{
+		final PreparedStatement requete;
+		boolean utilisee, evincee;
+
+		Cachee(PreparedStatement requete)
+		{
+			this.requete = requete;
+		}
+
+		void rendre()
+		{
+			utilisee = false;
+			try
+			{
+				if (evincee)
+					requete.close();
+				else
+				{
+					requete.clearParameters();
+					requete.clearBatch();
+				}
+			}
+			catch (SQLException e)
+			{
+				evincee = true;
+			}
+		}
+
+		void evincer()
+		{
+			evincee = true;
+			if (!utilisee)
+			{
+				try
+				{
+					requete.close();
+				}
+				catch (SQLException e) {}
+			}
+		}
+	}
+
+	/**
+	 * Requête prêtée : close() la rend au cache.
+	 */
+
+	private static class Rendue implements InvocationHandler
+	{
+		private Cachee cachee;
+		private final Connection pretee;
+
+		Rendue(Cachee cachee, Connection pretee)
+		{
+			this.cachee = cachee;
+			this.pretee = pretee;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+		{
+			switch (method.getName())
+			{
+			case "close":
+				if (cachee != null)
+				{
+					cachee.rendre();
+					cachee = null;
+				}
+				return null;
+			case "isClosed":
+				return cachee == null;
+			case "getConnection":
+				return pretee;
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			}
+			if (cachee == null)
+				throw new SQLException("Requête déjà rendue au cache");
+			try
+			{
+				return method.invoke(cachee.requete, args);
+			}
+			catch (InvocationTargetException e)
+			{
+				throw e.getCause();
+			}
+		}
+	}
+}
@@ -0,0 +1,292 @@
+package bdd;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+
+import inscriptions.Candidat;
+import inscriptions.Competition;
+import inscriptions.Entite;
+import inscriptions.Equipe;
+import inscriptions.Inscriptions;
+import inscriptions.Memoire;
+import inscriptions.Personne;
+
+/**
+ * Stockage des objets d'une {@link Inscriptions}. Chaque inscription
+ * choisit le sien à sa construction : {@link Connect} pour la base MySQL,
+ * {@link MemoryStorage} pour tout garder en mémoire, sans base.
+ */
+
+public interface StorageEngine
+{
+	/**
+	 * Suivi d'un chargement en plusieurs étapes.
+	 */
+
+	@FunctionalInterface
+	interface Progression
+	{
+		/**
+		 * Appelée à la fin de chaque étape.
+		 * @param etape ce qui vient d'être chargé.
+		 * @param faites nombre d'étapes terminées.
+		 * @param total nombre d'étapes du chargement.
+		 */
+
+		void avancer(String etape, int faites, int total);
+	}
+
+	/**
+	 * Appelé une fois que l'inscription a choisi ce stockage : charge dans
+	 * l'inscription ce que le stockage en connaît déjà.
+	 * @param inscription
+	 * @param memoire l'accès à la mémoire de l'inscription, pour y reporter
+	 * ce qui est lu.
+	 */
+
+	default void ouvrir(Inscriptions inscription, Memoire memoire)
+	{
+	}
+
+	/**
+	 * Applique à l'inscription les personnes ajoutées, modifiées ou
+	 * supprimées dans le stockage depuis la dernière synchronisation.
+	 * @param inscription
+	 * @param depuis la date retournée par l'appel précédent, null pour tout lire.
+	 * @return la date à passer à l'appel suivant.
+	 */
+
+	Timestamp personnesModifiees(Inscriptions inscription, Timestamp depuis);
+
+	/**
+	 * Applique à l'inscription les équipes ajoutées, modifiées ou
+	 * supprimées dans le stockage depuis la dernière synchronisation.
+	 * @param inscription
+	 * @param depuis
+	 * @return
+	 */
+
+	Timestamp equipesModifiees(Inscriptions inscription, Timestamp depuis);
+
+	/**
+	 * Retourne la personne d'id donné, null si elle n'existe pas.
+	 * @param inscription
+	 * @param id
+	 * @return
+	 */
+
+	Personne personne(Inscriptions inscription, int id);
+
+	/**
+	 * Retourne l'équipe d'id donné, null si elle n'existe pas.
+	 * @param inscription
+	 * @param id
+	 * @return
+	 */
+
+	Equipe equipe(Inscriptions inscription, int id);
+
+	/**
+	 * Retourne la compétition d'id donné, null si elle n'existe pas.
+	 * @param inscription
+	 * @param id
+	 * @return
+	 */
+
+	Competition competition(Inscriptions inscription, int id);
+
+	/**
+	 * Lit les compétitions du candidat si elles ne l'ont pas encore été.
+	 * @param candidat
+	 */
+
+	void chargerCompetitions(Candidat candidat);
+
+	/**
+	 * Lit les candidats de la compétition s'ils ne l'ont pas encore été.
+	 * @param competition
+	 */
+
+	void chargerCandidats(Competition competition);
+
+	/**
+	 * Lit les membres de l'équipe s'ils ne l'ont pas encore été.
+	 * @param equipe
+	 */
+
+	void chargerMembres(Equipe equipe);
+
+	/**
+	 * Lit les équipes de la personne si elles ne l'ont pas encore été.
+	 * @param personne
+	 */
+
+	void chargerEquipes(Personne personne);
+
+	/**
+	 * Lit tous les candidats et compétitions qui ne l'ont pas encore été,
+	 * pour les stockages qui ne les lisent qu'à la demande.
+	 * @param inscription
+	 */
+
+	default void chargerTout(Inscriptions inscription)
+	{
+	}
+
+	/**
+	 * Charge d'avance tout le stockage dans l'inscription, au démarrage,
+	 * pour les stockages où chaque lecture à la demande coûte une requête.
+	 * Sans effet si c'est déjà fait.
+	 * @param inscription
+	 * @param progression
+	 */
+
+	default void hydrater(Inscriptions inscription, Progression progression)
+	{
+	}
+
+	/**
+	 * Lit une page de personnes, triées par nom puis par id, sans lire les
+	 * précédentes.
+	 * @param inscription
+	 * @param apres le curseur de la page précédente, null pour la première.
+	 * @param taille
+	 * @return la page, null si le stockage ne sait pas lire par page :
+	 * l'inscription parcourt alors les personnes qu'elle a en mémoire.
+	 */
+
+	default Page<Personne> pagePersonnes(Inscriptions inscription, String apres, int taille)
+	{
+		return null;
+	}
+
+	/**
+	 * Lit une page d'équipes, triées par nom puis par id.
+	 * @param inscription
+	 * @param apres
+	 * @param taille
+	 * @return
+	 */
+
+	default Page<Equipe> pageEquipes(Inscriptions inscription, String apres, int taille)
+	{
+		return null;
+	}
+
+	/**
+	 * Lit une page de compétitions, triées par nom puis par id.
+	 * @param inscription
+	 * @param apres
+	 * @param taille
+	 * @return
+	 */
+
+	default Page<Competition> pageCompetitions(Inscriptions inscription, String apres, int taille)
+	{
+		return null;
+	}
+
+	/**
+	 * Limite le nombre de candidats et de compétitions gardés en mémoire,
+	 * 0 pour ne pas le limiter.
+	 * @param inscription
+	 * @param taille
+	 */
+
+	void limiterCache(Inscriptions inscription, int taille);
+
+	void save(Personne personne);
+
+	void save(Equipe equipe);
+
+	void save(Competition competition);
+
+	void save(Personne personne, Equipe equipe);
+
+	void save(Candidat candidat, Competition competition);
+
+	void save(Collection<Personne> membres, Equipe equipe);
+
+	void save(Collection<? extends Candidat> candidats, Competition competition);
+
+	void update(Personne personne);
+
+	void update(Equipe equipe);
+
+	void update(Competition competition);
+
+	void delete(Personne personne);
+
+	void delete(Equipe equipe);
+
+	void delete(Competition competition);
+
+	void delete(Personne personne, Equipe equipe);
+
+	void delete(Candidat candidat, Competition competition);
+
+	/**
+	 * Oublie l'id attribué par save à un candidat dont la création a été
+	 * annulée avec sa transaction : il n'est plus retrouvé par son id.
+	 * L'id n'est pas réattribué.
+	 * @param candidat
+	 */
+
+	void oublier(Candidat candidat);
+
+	void oublier(Competition competition);
+
+	/**
+	 * Relit un objet dont la modification a été refusée (voir
+	 * {@link ConflitException}) : ses champs modifiés gardent leur valeur,
+	 * les autres prennent celle du stockage, ainsi que sa version. Les champs
+	 * qui diffèrent encore du stockage restent notés modifiés, pour être
+	 * réécrits au prochain enregistrement.
+	 * @param inscription
+	 * @param entite
+	 */
+
+	default void fusionner(Inscriptions inscription, Entite entite)
+	{
+	}
+
+	/**
+	 * Commence une transaction sur le thread courant : les écritures
+	 * suivantes sont retenues jusqu'à {@link #valider()} ou {@link #annuler()}.
+	 */
+
+	void commencer();
+
+	/**
+	 * Écrit d'un coup les écritures retenues depuis {@link #commencer()}.
+	 * @throws PersistanceException si le stockage les a refusées.
+	 */
+
+	void valider();
+
+	/**
+	 * Abandonne les écritures retenues depuis {@link #commencer()}.
+	 */
+
+	void annuler();
+
+	/**
+	 * Active l'écriture différée.
+	 * @param capacite nombre d'écritures en attente au-delà duquel
+	 * les appels attendent que la file se vide.
+	 */
+
+	void activerWriteBehind(int capacite);
+
+	/**
+	 * Écrit ce qui est en attente et repasse en écriture immédiate.
+	 */
+
+	void desactiverWriteBehind();
+
+	/**
+	 * Attend que toutes les écritures déjà faites soient dans le stockage.
+	 */
+
+	void flush();
+}
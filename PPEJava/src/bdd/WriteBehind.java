@@ -0,0 +1,212 @@
+package bdd;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Écriture différée : les écritures sont placées dans une file bornée et
+ * exécutées par un thread d'arrière-plan. Chaque vidage de la file part en
+ * une seule transaction, les requêtes identiques consécutives en un seul lot.
+ *
+ * Une écriture dont la clé est déjà en attente remplace celle-ci au lieu
+ * d'être ajoutée, plusieurs modifications d'une même entité ne font donc
+ * qu'une requête. Quand la file est pleine, {@link #soumettre(Ecriture)}
+ * attend qu'elle se vide.
+ */
+
+class WriteBehind
+{
+	private final int capacite;
+	private final Deque<Attente> file = new ArrayDeque<>();
+	private final Map<Object, Attente> parCle = new HashMap<>();
+	private final ReentrantLock verrou = new ReentrantLock();
+	private final Condition nonVide = verrou.newCondition();
+	private final Condition nonPleine = verrou.newCondition();
+	private final Condition ecrit = verrou.newCondition();
+	private final Thread ecrivain;
+	private long soumises, ecrites;
+	private boolean ferme;
+
+	WriteBehind(int capacite)
+	{
+		if (capacite < 1)
+			throw new IllegalArgumentException("Capacité invalide : " + capacite);
+		this.capacite = capacite;
+		ecrivain = new Thread(this::ecrire, "WriteBehind");
+		ecrivain.setDaemon(true);
+		ecrivain.start();
+	}
+
+	/**
+	 * Ajoute une écriture à la file, en attendant si elle est pleine.
+	 * @param ecriture
+	 */
+
+	void soumettre(Ecriture ecriture)
+	{
+		verrou.lock();
+		try
+		{
+			if (ferme)
+				throw new IllegalStateException("Écriture différée arrêtée");
+			Object cle = ecriture.getCle();
+			Attente enAttente = cle == null ? null : parCle.get(cle);
+			if (enAttente != null)
+			{
+				enAttente.ecriture.terminee();
+				enAttente.ecriture = ecriture;
+				return;
+			}
+			while (file.size() >= capacite)
+				nonPleine.awaitUninterruptibly();
+			Attente attente = new Attente(ecriture, ++soumises);
+			file.addLast(attente);
+			if (cle != null)
+				parCle.put(cle, attente);
+			nonVide.signal();
+		}
+		finally
+		{
+			verrou.unlock();
+		}
+	}
+
+	/**
+	 * Attend que toutes les écritures soumises avant l'appel soient exécutées.
+	 */
+
+	void flush()
+	{
+		verrou.lock();
+		try
+		{
+			long attendues = soumises;
+			while (ecrites < attendues)
+				ecrit.awaitUninterruptibly();
+		}
+		finally
+		{
+			verrou.unlock();
+		}
+	}
+
+	/**
+	 * Exécute les écritures en attente puis arrête le thread d'écriture.
+	 */
+
+	void close()
+	{
+		verrou.lock();
+		try
+		{
+			ferme = true;
+			nonVide.signal();
+		}
+		finally
+		{
+			verrou.unlock();
+		}
+		if (Thread.currentThread() != ecrivain)
+		{
+			try
+			{
+				ecrivain.join();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void ecrire()
+	{
+		while (true)
+		{
+			List<Ecriture> lot = new ArrayList<>();
+			long dernier;
+			verrou.lock();
+			try
+			{
+				while (file.isEmpty() && !ferme)
+					nonVide.awaitUninterruptibly();
+				if (file.isEmpty())
+					return;
+				dernier = file.peekLast().numero;
+				for (Attente attente : file)
+					lot.add(attente.ecriture);
+				file.clear();
+				parCle.clear();
+				nonPleine.signalAll();
+			}
+			finally
+			{
+				verrou.unlock();
+			}
+			executer(lot);
+			Connect.terminer(lot);
+			verrou.lock();
+			try
+			{
+				ecrites = dernier;
+				ecrit.signalAll();
+			}
+			finally
+			{
+				verrou.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Exécute un lot en une transaction. Si elle échoue, le lot est annulé
+	 * puis rejoué écriture par écriture pour ne perdre que celles en erreur,
+	 * dont les modifications en conflit, relues ensuite par le thread
+	 * appelant (voir {@link Connect#flush()}).
+	 */
+
+	private static void executer(List<Ecriture> lot)
+	{
+		try (Connection cn = Connect.getConnection()) {
+			cn.setAutoCommit(false);
+			Connect.executer(cn, lot);
+			cn.commit();
+			Connect.validees(lot);
+			return;
+		} catch (SQLException | PersistanceException e) {
+			e.printStackTrace();
+		}
+		for (Ecriture ecriture : lot)
+		{
+			try (Connection cn = Connect.getConnection()) {
+				ecriture.executer(cn);
+				Connect.validees(Collections.singletonList(ecriture));
+			} catch (ConflitException e) {
+				Connect.refusee(e);
+			} catch (SQLException | PersistanceException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private static class Attente
+	{
+		Ecriture ecriture;
+		final long numero;
+
+		Attente(Ecriture ecriture, long numero)
+		{
+			this.ecriture = ecriture;
+			this.numero = numero;
+		}
+	}
+}
@@ -1,25 +1,30 @@
 package inscriptions;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
 
-import bdd.Connect;;
+import bdd.StorageEngine;
 
 /**
- * Candidat  un vnement sportif, soit une personne physique, soit une quipe.
+ * Candidat à un événement sportif, soit une personne physique, soit une équipe.
  *
  */
 
-public abstract class Candidat implements Comparable<Candidat>, Serializable
+public abstract class Candidat implements Comparable<Candidat>, Serializable, Entite
 {
 	private static final long serialVersionUID = -6035399822298694746L;
+	public static final String NOM = "nom";
 	private Inscriptions inscriptions;
 	private String nom;
 	private int id;
+	private int version;
 	boolean isDelete;
-	Connect bdd = new Connect();
+	private transient Set<String> modifications;
 
 	private Set<Competition> competitions;
 	
@@ -49,6 +54,21 @@ public abstract class Candidat implements Comparable<Candidat>, Serializable
 		this.isDelete = isDelete;
 	}
 	
+	/**
+	 * Retourne l'inscription à laquelle appartient le candidat.
+	 * @return
+	 */
+	
+	public Inscriptions getInscriptions()
+	{
+		return inscriptions;
+	}
+	
+	StorageEngine stockage()
+	{
+		return inscriptions.getStockage();
+	}
+	
 	/**
 	 * Retourne l'id du candidat.
 	 * @return
@@ -67,6 +87,18 @@ public abstract class Candidat implements Comparable<Candidat>, Serializable
 		this.id = id_candidat;
 	}
 
+	@Override
+	public int getVersion()
+	{
+		return version;
+	}
+
+	@Override
+	public void setVersion(int version)
+	{
+		this.version = version;
+	}
+
 	/**
 	 * Retourne le nom du candidat.
 	 * @return
@@ -83,23 +115,87 @@ public abstract class Candidat implements Comparable<Candidat>, Serializable
 	 */
 	
 	public void setNom(String nom)
+	{
+		boolean modifie = !Objects.equals(this.nom, nom);
+		this.nom = nom;
+		if (modifie)
+			modifier(NOM);
+	}
+
+	/**
+	 * Modifie le nom sans le noter modifié, pour un nom relu du stockage.
+	 * @param nom
+	 */
+
+	void nommer(String nom)
 	{
 		this.nom = nom;
 	}
 
+	@Override
+	public void modifier(String champ)
+	{
+		synchronized (this)
+		{
+			if (modifications == null)
+				modifications = new HashSet<>();
+			modifications.add(champ);
+		}
+		inscriptions.modifie(this);
+	}
+
+	@Override
+	public synchronized Set<String> extraireModifications()
+	{
+		Set<String> champs = modifications == null ? Collections.<String>emptySet() : modifications;
+		modifications = null;
+		return champs;
+	}
+
+	@Override
+	public synchronized boolean estModifie()
+	{
+		return modifications != null && !modifications.isEmpty();
+	}
+
+	/**
+	 * Retourne une copie des champs modifiés pas encore écrits.
+	 * @return
+	 */
+
+	synchronized Set<String> copierModifications()
+	{
+		return modifications == null ? new HashSet<>() : new HashSet<>(modifications);
+	}
+
+	/**
+	 * Remet les champs modifiés d'avant une transaction annulée, sans noter
+	 * l'objet modifié.
+	 * @param champs
+	 */
+
+	synchronized void restaurerModifications(Set<String> champs)
+	{
+		modifications = champs.isEmpty() ? null : new HashSet<>(champs);
+	}
+
 	/**
-	 * Retourne toutes les comptitions auxquelles ce candidat est inscrit.s
+	 * Retourne toutes les compétitions auxquelles ce candidat est inscrit.s
 	 * @return
 	 */
 
 	public Set<Competition> getCompetitions()
 	{
+		stockage().chargerCompetitions(this);
 		return Collections.unmodifiableSet(competitions);
 	}
 	
 	public boolean add(Competition competition,boolean save)
 	{
-		bdd.save(competition);
+		if(save)
+		{
+			stockage().save(this,competition);
+		}
 		return competitions.add(competition);
 	}
 
@@ -114,8 +210,8 @@ public abstract class Candidat implements Comparable<Candidat>, Serializable
 	
 	public void delete()
 	{
-		Connect.deleteC(this);
-		for (Competition c : competitions)
+		stockage().chargerCompetitions(this);
+		for (Competition c : new ArrayList<>(competitions))
 			c.remove(this);
 		inscriptions.remove(this);
 	}
@@ -129,7 +225,7 @@ public abstract class Candidat implements Comparable<Candidat>, Serializable
 	@Override
 	public String toString()
 	{
-		return "\n" + getNom() + " -> inscrit  " + getCompetitions();
+		return "\n" + getNom() + " -> inscrit à " + getCompetitions();
 	}
 	
 }
\ No newline at end of file
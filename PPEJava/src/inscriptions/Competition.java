@@ -2,29 +2,36 @@
 
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
 
-import bdd.Connect;;
+import bdd.StorageEngine;
 
 /**
- * Reprsente une comptition, c'est--dire un ensemble de candidats 
- * inscrits  un vnement, les inscriptions sont closes  la date dateCloture.
+ * Représente une compétition, c'est-à-dire un ensemble de candidats 
+ * inscrits à un événement, les inscriptions sont closes à la date dateCloture.
  *
  */
 
-public class Competition implements Comparable<Competition>, Serializable
+public class Competition implements Comparable<Competition>, Serializable, Entite
 {
 	private static final long serialVersionUID = -2882150118573759729L;
+	public static final String NOM = "nom", DATE_CLOTURE = "dateCloture";
 	private Inscriptions inscriptions;
 	private String nom;
 	private int id_competition;
+	private int version;
 	private Set<Candidat> candidats;
 	private LocalDate dateCloture;
 	private boolean enEquipe = false;
-	Connect bdd = new Connect();
 	boolean isDelete;
+	private transient Set<String> modifications;
 	
 	Competition(Inscriptions inscriptions, String nom, LocalDate dateCloture, boolean enEquipe, boolean save)
 	{
@@ -35,7 +42,7 @@ public class Competition implements Comparable<Competition>, Serializable
 		candidats = new TreeSet<>();
 		if(save)
 		{
-			bdd.save(this);
+			stockage().save(this);
 		}
 	}
 	
@@ -57,7 +64,22 @@ public class Competition implements Comparable<Competition>, Serializable
 		this.isDelete = isDelete;
 	}
 	/**
-	 * Retourne le nom de la comptition.
+	 * Retourne l'inscription à laquelle appartient la compétition.
+	 * @return
+	 */
+	
+	public Inscriptions getInscriptions()
+	{
+		return inscriptions;
+	}
+	
+	StorageEngine stockage()
+	{
+		return inscriptions.getStockage();
+	}
+	
+	/**
+	 * Retourne le nom de la compétition.
 	 * @return
 	 */
 	
@@ -67,12 +89,72 @@ public class Competition implements Comparable<Competition>, Serializable
 	}
 	
 	/**
-	 * Modifie le nom de la comptition.
+	 * Modifie le nom de la compétition.
 	 */
 	
 	public void setNom(String nom)
 	{
+		boolean modifie = !Objects.equals(this.nom, nom);
 		this.nom = nom ;
+		if (modifie)
+			modifier(NOM);
+	}
+
+	/**
+	 * Modifie le nom sans le noter modifié, pour un nom relu du stockage.
+	 * @param nom
+	 */
+
+	void nommer(String nom)
+	{
+		this.nom = nom;
+	}
+
+	@Override
+	public void modifier(String champ)
+	{
+		synchronized (this)
+		{
+			if (modifications == null)
+				modifications = new HashSet<>();
+			modifications.add(champ);
+		}
+		inscriptions.modifie(this);
+	}
+
+	@Override
+	public synchronized Set<String> extraireModifications()
+	{
+		Set<String> champs = modifications == null ? Collections.<String>emptySet() : modifications;
+		modifications = null;
+		return champs;
+	}
+
+	@Override
+	public synchronized boolean estModifie()
+	{
+		return modifications != null && !modifications.isEmpty();
+	}
+
+	/**
+	 * Retourne une copie des champs modifiés pas encore écrits.
+	 * @return
+	 */
+
+	synchronized Set<String> copierModifications()
+	{
+		return modifications == null ? new HashSet<>() : new HashSet<>(modifications);
+	}
+
+	/**
+	 * Remet les champs modifiés d'avant une transaction annulée, sans noter
+	 * la compétition modifiée.
+	 * @param champs
+	 */
+
+	synchronized void restaurerModifications(Set<String> champs)
+	{
+		modifications = champs.isEmpty() ? null : new HashSet<>(champs);
 	}
 	
 	/**
@@ -97,7 +179,7 @@ public class Competition implements Comparable<Competition>, Serializable
 	}
 	
 	/**
-	 * Est vrai si et seulement si les inscriptions sont rserves aux quipes.
+	 * Est vrai si et seulement si les inscriptions sont réservées aux équipes.
 	 * @return
 	 */
 	
@@ -118,6 +200,7 @@ public class Competition implements Comparable<Competition>, Serializable
 		if(this.getDateCloture().isBefore(dateCloture))
 		{
 			this.dateCloture = dateCloture;
+			modifier(DATE_CLOTURE);
 		}
 		else
 		{
@@ -132,12 +215,13 @@ public class Competition implements Comparable<Competition>, Serializable
 	
 	public Set<Candidat> getCandidats()
 	{
+		stockage().chargerCandidats(this);
 		return Collections.unmodifiableSet(candidats);
 	}
 	
 	/**
-	 * Inscrit un candidat de type Personne  la comptition. Provoque une
-	 * exception si la comptition est rserve aux quipes ou que les 
+	 * Inscrit un candidat de type Personne à la compétition. Provoque une
+	 * exception si la compétition est réservée aux équipes ou que les 
 	 * inscriptions sont closes.
 	 * @param personne
 	 * @return
@@ -150,9 +234,8 @@ public class Competition implements Comparable<Competition>, Serializable
 		{
 			if (enEquipe)
 				throw new RuntimeException();
-			personne.add(this,true);
-			bdd.save(personne,this);
-			return candidats.add(personne);
+			stockage().save(personne,this);
+			return inscrire(personne);
 		}
 		else
 		{
@@ -162,8 +245,8 @@ public class Competition implements Comparable<Competition>, Serializable
 	}
 
 	/**
-	 * Inscrit un candidat de type Equipe  la comptition. Provoque une
-	 * exception si la comptition est rserve aux personnes ou que 
+	 * Inscrit un candidat de type Equipe à la compétition. Provoque une
+	 * exception si la compétition est réservée aux personnes ou que 
 	 * les inscriptions sont closes.
 	 * @param personne
 	 * @return
@@ -176,9 +259,8 @@ public class Competition implements Comparable<Competition>, Serializable
 		{
 			if (!enEquipe)
 				throw new RuntimeException();
-			equipe.add(this,true);
-			bdd.save(equipe,this);
-			return candidats.add(equipe);
+			stockage().save(equipe,this);
+			return inscrire(equipe);
 		}
 		else
 		{
@@ -187,26 +269,106 @@ public class Competition implements Comparable<Competition>, Serializable
 	}
 
 	/**
-	 * Dsinscrit un candidat.
+	 * Rattache un candidat à la compétition sans contrôler le type ni la
+	 * date de clôture, utilisé au chargement d'inscriptions existantes.
+	 * @param candidat
+	 * @param save
+	 * @return
+	 */
+
+	public boolean add(Candidat candidat, boolean save)
+	{
+		if(save)
+		{
+			stockage().save(candidat,this);
+		}
+		return inscrire(candidat);
+	}
+
+	/**
+	 * Inscrit plusieurs candidats à la compétition en une seule écriture
+	 * groupée. Provoque une exception si l'un d'eux n'est pas du type
+	 * attendu (personne ou équipe) ou que les inscriptions sont closes,
+	 * aucun candidat n'est alors inscrit.
+	 * @param nouveaux
+	 * @return
+	 * @throws DateInvalide 
+	 */
+
+	public boolean addAll(Collection<? extends Candidat> nouveaux) throws DateInvalide
+	{
+		if(!this.getDateCloture().isAfter(LocalDate.now()))
+			throw new DateInvalide();
+		for (Candidat candidat : nouveaux)
+			if ((candidat instanceof Equipe) != enEquipe)
+				throw new RuntimeException();
+		List<Candidat> inscrits = new ArrayList<>();
+		for (Candidat candidat : nouveaux)
+			if (!candidats.contains(candidat))
+				inscrits.add(candidat);
+		stockage().save(inscrits,this);
+		for (Candidat candidat : inscrits)
+			inscrire(candidat);
+		return !inscrits.isEmpty();
+	}
+
+	private boolean inscrire(Candidat candidat)
+	{
+		candidat.add(this,false);
+		if (!candidats.add(candidat))
+			return false;
+		inscriptions.annulable(() -> {
+			candidats.remove(candidat);
+			candidat.remove(this);
+		});
+		return true;
+	}
+
+	/**
+	 * Désinscrit un candidat.
 	 * @param candidat
 	 * @return
 	 */
 	
 	public boolean remove(Candidat candidat)
+	{
+		return remove(candidat, true);
+	}
+
+	/**
+	 * Désinscrit un candidat, sans l'enregistrer si save est faux.
+	 * @param candidat
+	 * @param save
+	 * @return
+	 */
+
+	public boolean remove(Candidat candidat, boolean save)
 	{
 		candidat.remove(this);
-		return candidats.remove(candidat);
+		if (!candidats.remove(candidat))
+			return false;
+		if(save)
+		{
+			stockage().delete(candidat, this);
+		}
+		inscriptions.annulable(() -> {
+			candidats.add(candidat);
+			candidat.add(this,false);
+		});
+		return true;
 	}
 	
 	/**
-	 * Supprime la comptition de l'application.
+	 * Supprime la compétition de l'application.
 	 */
 	
 	public void delete()
 	{
-		for (Candidat candidat : candidats)
+		stockage().chargerCandidats(this);
+		for (Candidat candidat : new ArrayList<>(candidats))
 			remove(candidat);
 		inscriptions.remove(this);
+		stockage().delete(this);
 	}
 	
 	@Override
@@ -228,4 +390,16 @@ public class Competition implements Comparable<Competition>, Serializable
 	public void setId(int id_competition) {
 		this.id_competition = id_competition;
 	}
+
+	@Override
+	public int getVersion()
+	{
+		return version;
+	}
+
+	@Override
+	public void setVersion(int version)
+	{
+		this.version = version;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package inscriptions;
+
+import java.util.Set;
+
+/**
+ * Objet enregistré par le stockage : candidat ou compétition. Il note ses
+ * champs modifiés, pour que seuls ceux-ci soient écrits, et la version
+ * sous laquelle il a été lu, pour qu'une modification faite entre-temps
+ * depuis un autre poste ne soit pas écrasée.
+ */
+
+public interface Entite
+{
+	int getId();
+
+	/**
+	 * Retourne la version de l'objet lue dans le stockage.
+	 * @return
+	 */
+
+	int getVersion();
+
+	void setVersion(int version);
+
+	/**
+	 * Note un champ modifié, à écrire au prochain enregistrement de
+	 * l'inscription.
+	 * @param champ
+	 */
+
+	void modifier(String champ);
+
+	/**
+	 * Retourne les champs modifiés depuis l'appel précédent, et les oublie.
+	 * @return
+	 */
+
+	Set<String> extraireModifications();
+
+	/**
+	 * Vrai si des champs ont été modifiés depuis le dernier appel à
+	 * {@link #extraireModifications()}.
+	 * @return
+	 */
+
+	boolean estModifie();
+}
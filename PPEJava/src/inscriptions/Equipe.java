@@ -1,14 +1,16 @@
 package inscriptions;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
-import bdd.Connect;;
 
 /**
- * Reprsente une Equipe. C'est--dire un ensemble de personnes pouvant 
- * s'inscrire  une comptition.
+ * Représente une Equipe. C'est-à-dire un ensemble de personnes pouvant 
+ * s'inscrire à une compétition.
  * 
  */
 
@@ -18,7 +20,6 @@ public class Equipe extends Candidat
 	private SortedSet<Personne> membres = new TreeSet<>();
 	private int id;
 
-	Connect bdd = new Connect();
 	boolean isDelete;
 	
 	public Equipe(Inscriptions inscriptions, String nom,boolean save)
@@ -26,7 +27,7 @@ public class Equipe extends Candidat
 		super(inscriptions, nom);
 		if(save)
 		{
-			bdd.save(this);
+			stockage().save(this);
 		}
 	}
 	
@@ -47,41 +48,75 @@ public class Equipe extends Candidat
 	}
 
 	/**
-	 * Retourne l'id de l'quipe.
+	 * Retourne l'id de l'équipe.
 	 */
 	
 	/**
-	 * Modifie l'id de l'quipe.
+	 * Modifie l'id de l'équipe.
 	 */
 
 	
 	/**
-	 * Retourne l'ensemble des personnes formant l'quipe.
+	 * Retourne l'ensemble des personnes formant l'équipe.
 	 */
 	
 	public SortedSet<Personne> getMembres()
 	{
+		stockage().chargerMembres(this);
 		return Collections.unmodifiableSortedSet(membres);
 	}
 	
 	/**
-	 * Ajoute une personne dans l'quipe.
+	 * Ajoute une personne dans l'équipe.
 	 * @param membre
 	 * @return
 	 */
 
 	public boolean add(Personne membre,boolean save)
 	{
-		membre.add(this);
 		if(save)
 		{
-			bdd.save(membre,this);
+			stockage().save(membre,this);
 		}
-		return membres.add(membre);
+		return ajouter(membre);
+	}
+
+	/**
+	 * Ajoute plusieurs personnes dans l'équipe, enregistrées en une
+	 * seule écriture groupée.
+	 * @param nouveaux
+	 * @return
+	 */
+
+	public boolean addAll(Collection<Personne> nouveaux,boolean save)
+	{
+		List<Personne> ajoutes = new ArrayList<>();
+		for (Personne membre : nouveaux)
+			if (!membres.contains(membre))
+				ajoutes.add(membre);
+		if(save)
+		{
+			stockage().save(ajoutes,this);
+		}
+		for (Personne membre : ajoutes)
+			ajouter(membre);
+		return !ajoutes.isEmpty();
+	}
+
+	private boolean ajouter(Personne membre)
+	{
+		membre.add(this);
+		if (!membres.add(membre))
+			return false;
+		getInscriptions().annulable(() -> {
+			membres.remove(membre);
+			membre.remove(this);
+		});
+		return true;
 	}
 
 	/**
-	 * Supprime une personne de l'quipe. 
+	 * Supprime une personne de l'équipe. 
 	 * @param membre
 	 * @return
 	 */
@@ -91,17 +126,24 @@ public class Equipe extends Candidat
 		membre.remove(this);
 		if(save)
 		{
-			bdd.delete(membre, this);
+			stockage().delete(membre, this);
 		}
-		return membres.remove(membre);
+		if (!membres.remove(membre))
+			return false;
+		getInscriptions().annulable(() -> {
+			membres.add(membre);
+			membre.add(this);
+		});
+		return true;
 	}
 
 	@Override
 	public void delete()
 	{
+		stockage().chargerMembres(this);
 		super.delete();
 
-		Connect.deleteE(this);
+		stockage().delete(this);
 		
 		
 			
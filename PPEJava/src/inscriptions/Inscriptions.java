@@ -1,23 +1,38 @@
 package inscriptions;
 
+import java.io.BufferedInputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 
 import Presentation.MainMenu;
+import bdd.ConflitException;
 import bdd.Connect;
+import bdd.FileStorage;
+import bdd.MemoryStorage;
+import bdd.Page;
+import bdd.StorageEngine;
 
 /**
- * Point d'entrée dans l'application, un seul objet de type Inscription
- * permet de gérer les compétitions, candidats (de type equipe ou personne)
- * ainsi que d'inscrire des candidats   des compétition.
+ * Point d'entrÃ©e dans l'application, un seul objet de type Inscription
+ * permet de gÃ©rer les compÃ©titions, candidats (de type equipe ou personne)
+ * ainsi que d'inscrire des candidats Ã  des compÃ©tition.
  */
 
 public class Inscriptions implements Serializable
@@ -30,30 +45,80 @@ public class Inscriptions implements Serializable
 	private SortedSet<Candidat> candidats = new TreeSet<>();
 	private SortedSet<Personne> personnes = new TreeSet<>();
 	private SortedSet<Equipe> equipes = new TreeSet<>();
+	private transient Deque<Runnable> annulations;
+	private transient Thread transaction;
+	private transient Timestamp personnesLues, equipesLues;
+	private transient StorageEngine stockage;
+	private transient Set<Object> modifies;
+	
+	/**
+	 * Crée une inscription stockée dans la base MySQL, ou selon la
+	 * propriété système bdd.stockage : en mémoire si elle vaut memoire,
+	 * dans un journal de fichiers si elle vaut fichier.
+	 */
+	
 	public Inscriptions()
 	{
-		
+		this(null);
+	}
+	
+	/**
+	 * Crée une inscription sur le stockage donné.
+	 * @param stockage null pour le stockage par défaut.
+	 */
+	
+	public Inscriptions(StorageEngine stockage)
+	{
+		this.stockage = stockage != null ? stockage : stockageParDefaut();
+		this.stockage.ouvrir(this, new Acces());
+	}
+	
+	/**
+	 * Retourne le stockage de l'inscription.
+	 * @return
+	 */
+	
+	public StorageEngine getStockage()
+	{
+		if (stockage == null)
+		{
+			stockage = stockageParDefaut();
+			stockage.ouvrir(this, new Acces());
+		}
+		return stockage;
+	}
+	
+	private StorageEngine stockageParDefaut()
+	{
+		String type = System.getProperty("bdd.stockage");
+		if ("memoire".equals(type))
+			return new MemoryStorage();
+		if ("fichier".equals(type))
+			return new FileStorage();
+		return new Connect();
 	}
 	
 	/**
-	 * Retourne les compétitions.
+	 * Retourne les compÃ©titions.
 	 * @return
 	 */
 	
 	public SortedSet<Competition> getCompetitions()
 	{
+		getStockage().chargerTout(this);
 		return Collections.unmodifiableSortedSet(competitions);
 		
 		
 	}
 	
 	/**
-	 * Retourne tous les candidats (personnes et équipes confondues).
+	 * Retourne tous les candidats (personnes et Ã©quipes confondues).
 	 * @return
 	 */
 	
 	public SortedSet<Candidat> getCandidats()
 	{
+		getStockage().chargerTout(this);
 		return Collections.unmodifiableSortedSet(candidats);
 	}
 
@@ -65,37 +130,251 @@ public class Inscriptions implements Serializable
 
 	
 	/**
-	 * Retourne toutes les personnes non-supprims.
+	 * Retourne toutes les personnes non-supprimés. Seules les personnes
+	 * ajoutées, modifiées ou supprimées en base depuis l'appel précédent
+	 * sont relues.
 	 * @return
 	 */
 	
 	public SortedSet<Personne> getPersonnes()
 	{
-		Connect.afficheP(this);
-
-		for (Candidat c : getCandidats())
-			if (c instanceof Personne)
-					personnes.add((Personne)c);
+		personnesLues = getStockage().personnesModifiees(this, personnesLues);
 		return Collections.unmodifiableSortedSet(personnes);
 	}
 
 	/**
-	 * Retourne toutes les équipes.
+	 * Retourne toutes les Ã©quipes.
 	 * @return
 	 */
 	
 	public SortedSet<Equipe> getEquipes()
 	{
-		Connect.selectEquipe(this);
-
-		for (Candidat c : getCandidats())
-			if (c instanceof Equipe)
-				equipes.add((Equipe)c);
+		equipesLues = getStockage().equipesModifiees(this, equipesLues);
 		return Collections.unmodifiableSortedSet(equipes);
 	}
 
 	/**
-	 * Créée une compétition. Ceci est le seul moyen, il n'y a pas
+	 * Retourne une page de personnes triées par nom, lue sans lire les
+	 * pages précédentes.
+	 * @param apres le curseur de la page précédente, null pour la première.
+	 * @param taille
+	 * @return
+	 */
+	
+	public Page<Personne> getPersonnes(String apres, int taille)
+	{
+		Page<Personne> page = getStockage().pagePersonnes(this, apres, taille);
+		if (page == null)
+			page = page(getPersonnes(), apres, taille, Personne::getNom, Personne::getId);
+		return page;
+	}
+
+	/**
+	 * Retourne une page d'équipes triées par nom.
+	 * @param apres
+	 * @param taille
+	 * @return
+	 */
+	
+	public Page<Equipe> getEquipes(String apres, int taille)
+	{
+		Page<Equipe> page = getStockage().pageEquipes(this, apres, taille);
+		if (page == null)
+			page = page(getEquipes(), apres, taille, Equipe::getNom, Equipe::getId);
+		return page;
+	}
+
+	/**
+	 * Retourne une page de compétitions triées par nom.
+	 * @param apres
+	 * @param taille
+	 * @return
+	 */
+	
+	public Page<Competition> getCompetitions(String apres, int taille)
+	{
+		Page<Competition> page = getStockage().pageCompetitions(this, apres, taille);
+		if (page == null)
+			page = page(getCompetitions(), apres, taille, Competition::getNom, Competition::getId);
+		return page;
+	}
+
+	/**
+	 * Page des éléments en mémoire qui suivent le curseur, comparés à lui
+	 * sur leur nom : les ensembles sont triés par nom seul, chaque nom y
+	 * est donc unique.
+	 */
+	
+	private static <T> Page<T> page(SortedSet<T> elements, String apres, int taille,
+			Function<T, String> nom, ToIntFunction<T> id)
+	{
+		String nomApres = apres == null ? null : Page.nom(apres);
+		return Page.de(elements.stream().filter(element -> nomApres == null || nom.apply(element).compareTo(nomApres) > 0).iterator(),
+				taille, nom, id);
+	}
+
+	/**
+	 * Retourne la personne d'id donné, lue en base si elle n'est pas en mémoire.
+	 * @param id
+	 * @return la personne, null si elle n'existe pas.
+	 */
+	
+	public Personne getPersonne(int id)
+	{
+		return getStockage().personne(this, id);
+	}
+	
+	/**
+	 * Retourne l'équipe d'id donné, lue en base si elle n'est pas en mémoire.
+	 * @param id
+	 * @return l'équipe, null si elle n'existe pas.
+	 */
+	
+	public Equipe getEquipe(int id)
+	{
+		return getStockage().equipe(this, id);
+	}
+	
+	/**
+	 * Retourne la compétition d'id donné, lue en base si elle n'est pas en mémoire.
+	 * @param id
+	 * @return la compétition, null si elle n'existe pas.
+	 */
+	
+	public Competition getCompetition(int id)
+	{
+		return getStockage().competition(this, id);
+	}
+	
+	/**
+	 * Limite le nombre de candidats et de compétitions gardés en mémoire,
+	 * 0 pour ne pas le limiter. Au-delà, les moins récemment utilisés sont
+	 * retirés de la mémoire et relus en base à la demande, sauf ceux qui
+	 * ont des modifications pas encore écrites.
+	 * @param taille
+	 */
+	
+	public void setCache(int taille)
+	{
+		getStockage().limiterCache(this, taille);
+	}
+	
+	/**
+	 * Charge d'avance tout ce que contient le stockage, à appeler au
+	 * démarrage. Sans effet s'il l'a déjà été ou si le stockage lit tout
+	 * à la demande.
+	 * @param progression informée de l'avancement, étape par étape.
+	 */
+	
+	public void hydrater(StorageEngine.Progression progression)
+	{
+		getStockage().hydrater(this, progression);
+	}
+	
+	/**
+	 * Accès du stockage à la mémoire de l'inscription (voir {@link Memoire}).
+	 */
+	
+	private class Acces implements Memoire
+	{
+		@Override
+		public void setLues(Timestamp personnes, Timestamp equipes)
+		{
+			if (personnes != null)
+				personnesLues = personnes;
+			if (equipes != null)
+				equipesLues = equipes;
+		}
+		
+		@Override
+		public boolean charger(Candidat candidat)
+		{
+			return ajouter(candidat);
+		}
+		
+		@Override
+		public void renommer(Candidat candidat, String nom)
+		{
+			boolean present = retirer(candidat);
+			candidat.nommer(nom);
+			if (present)
+				ajouter(candidat);
+		}
+		
+		@Override
+		public void renommer(Competition competition, String nom)
+		{
+			boolean present = competitions.remove(competition);
+			competition.nommer(nom);
+			if (present)
+				competitions.add(competition);
+		}
+		
+		@Override
+		public void mettreAJour(Personne personne, String prenom, String mail)
+		{
+			personne.restaurer(prenom, mail);
+		}
+		
+		@Override
+		public void oublier(Competition competition)
+		{
+			for (Candidat candidat : new ArrayList<>(competition.getCandidats()))
+				competition.remove(candidat, false);
+			competitions.remove(competition);
+		}
+		
+		@Override
+		public void oublier(Candidat candidat)
+		{
+			for (Competition competition : new ArrayList<>(candidat.getCompetitions()))
+				competition.remove(candidat, false);
+			if (candidat instanceof Personne)
+				for (Equipe equipe : new ArrayList<>(((Personne) candidat).getEquipes()))
+					equipe.remove((Personne) candidat, false);
+			else if (candidat instanceof Equipe)
+				for (Personne membre : new ArrayList<>(((Equipe) candidat).getMembres()))
+					((Equipe) candidat).remove(membre, false);
+			retirer(candidat);
+		}
+		
+		@Override
+		public void evincer(Candidat candidat)
+		{
+			retirer(candidat);
+		}
+		
+		@Override
+		public void evincer(Competition competition)
+		{
+			competitions.remove(competition);
+		}
+	}
+	
+	private boolean ajouter(Candidat candidat)
+	{
+		if (!candidats.add(candidat))
+			return false;
+		if (candidat instanceof Personne)
+			personnes.add((Personne) candidat);
+		else if (candidat instanceof Equipe)
+			equipes.add((Equipe) candidat);
+		return true;
+	}
+	
+	private boolean retirer(Candidat candidat)
+	{
+		if (!candidats.remove(candidat))
+			return false;
+		if (candidat instanceof Personne)
+			personnes.remove(candidat);
+		else if (candidat instanceof Equipe)
+			equipes.remove(candidat);
+		return true;
+	}
+
+	/**
+	 * CrÃ©Ã©e une compÃ©tition. Ceci est le seul moyen, il n'y a pas
 	 * de constructeur public dans {@link Competition}.
 	 * @param nom
 	 * @param dateCloture
@@ -107,12 +386,18 @@ public class Inscriptions implements Serializable
 			LocalDate dateCloture, boolean enEquipe,boolean save)
 	{
 		Competition competition = new Competition(this, nom, dateCloture, enEquipe,save);
-		competitions.add(competition);
+		boolean ajoutee = competitions.add(competition);
+		annulable(() -> {
+			if (ajoutee)
+				competitions.remove(competition);
+			if (save)
+				getStockage().oublier(competition);
+		});
 		return competition;
 	}
 
 	/**
-	 * Créée une Candidat de type Personne. Ceci est le seul moyen, il n'y a pas
+	 * CrÃ©Ã©e une Candidat de type Personne. Ceci est le seul moyen, il n'y a pas
 	 * de constructeur public dans {@link Personne}.
 	 * @param nom
 	 * @param prenom
@@ -123,30 +408,43 @@ public class Inscriptions implements Serializable
 	public Competition editeCompetition(Competition competition, String nom)
 	{
 		
+		String ancienNom = competition.getNom();
+		Set<String> modifications = competition.copierModifications();
 		competition.setNom(nom);
-		Connect.updateC(competition);
+		annulable(() -> {
+			competition.nommer(ancienNom);
+			competition.restaurerModifications(modifications);
+		});
+		ecrireModification(() -> getStockage().update(competition));
 		return competition;
 	}
 	
 	public Personne createPersonne(String nom, String prenom, String mail,boolean save)
 	{
 		Personne personne = new Personne(this,nom, prenom, mail,save);
-		candidats.add(personne);
+		annulerCreation(personne, ajouter(personne), save);
 		return personne;
 	}
 	
 	public Personne editePersonne(Personne personne,String nom,String prenom,String mail)
 	{
+		String ancienPrenom = personne.getPrenom(), ancienNom = personne.getNom(), ancienMail = personne.getMail();
+		Set<String> modifications = personne.copierModifications();
 		personne.setPrenom(prenom);
 		personne.setNom(nom);
 		personne.setMail(mail);
-		Connect.updateP(personne);
+		annulable(() -> {
+			personne.nommer(ancienNom);
+			personne.restaurer(ancienPrenom, ancienMail);
+			personne.restaurerModifications(modifications);
+		});
+		ecrireModification(() -> getStockage().update(personne));
 		
 		return personne;
 	}
 	
 	/**
-	 * Créée une Candidat de type équipe. Ceci est le seul moyen, il n'y a pas
+	 * CrÃ©Ã©e une Candidat de type Ã©quipe. Ceci est le seul moyen, il n'y a pas
 	 * de constructeur public dans {@link Equipe}.
 	 * @param nom
 	 * @param prenom
@@ -157,31 +455,248 @@ public class Inscriptions implements Serializable
 	public Equipe createEquipe(String nom , boolean save)
 	{
 		Equipe equipe = new Equipe(this, nom, save);
-		candidats.add(equipe);
+		annulerCreation(equipe, ajouter(equipe), save);
 		return equipe;
 	}
+
+	/**
+	 * Note comment défaire la création d'un candidat si la transaction en
+	 * cours échoue : il est retiré de l'inscription et, s'il a été
+	 * enregistré, le stockage oublie son id.
+	 */
+
+	private void annulerCreation(Candidat candidat, boolean ajoute, boolean save)
+	{
+		annulable(() -> {
+			if (ajoute)
+				retirer(candidat);
+			if (save)
+				getStockage().oublier(candidat);
+		});
+	}
 	
 	public Equipe editeEquipe(Equipe equipe, String nom,boolean save)
 	{
+		String ancienNom = equipe.getNom();
+		Set<String> modifications = equipe.copierModifications();
 		equipe.setNom(nom);
-		Connect.updateE(equipe);
+		annulable(() -> {
+			equipe.nommer(ancienNom);
+			equipe.restaurerModifications(modifications);
+		});
+		ecrireModification(() -> getStockage().update(equipe));
 		return equipe;
 	}
 	
+	/**
+	 * Écrit la modification d'un objet. Si elle est refusée parce qu'il a
+	 * été modifié en base depuis sa lecture, y reporte les modifications
+	 * faites en base (voir {@link #fusionner}) puis la réécrit une fois.
+	 * @param modification
+	 * @throws ConflitException si elle est de nouveau refusée.
+	 */
+	
+	private void ecrireModification(Runnable modification)
+	{
+		try
+		{
+			modification.run();
+		}
+		catch (ConflitException conflit)
+		{
+			fusionner(conflit);
+			modification.run();
+		}
+	}
+	
+	
+	/**
+	 * Active ou désactive l'écriture différée. Une fois active, les créations
+	 * et modifications rendent la main sans attendre la base : elles sont
+	 * écrites en arrière-plan, par lots. La désactivation écrit tout ce qui
+	 * est encore en attente.
+	 * @param active
+	 */
+	
+	public void setWriteBehind(boolean active)
+	{
+		if (active)
+			getStockage().activerWriteBehind(Integer.getInteger("bdd.writebehind.capacite", 1000));
+		else
+			getStockage().desactiverWriteBehind();
+	}
+	
+	/**
+	 * Attend que toutes les modifications déjà faites soient écrites en base,
+	 * y compris celles faites par les setters des objets.
+	 */
+	
+	public void flush()
+	{
+		enregistrer();
+		getStockage().flush();
+	}
+	
+	/**
+	 * Note un objet dont un champ a été modifié.
+	 * @param objet
+	 */
+	
+	synchronized void modifie(Object objet)
+	{
+		if (modifies == null)
+			modifies = new LinkedHashSet<>();
+		modifies.add(objet);
+	}
+	
+	/**
+	 * Écrit les objets modifiés par leurs setters depuis le dernier
+	 * enregistrement, en une transaction : une mise à jour par objet, des
+	 * seules colonnes modifiées, les mises à jour des mêmes colonnes
+	 * groupées en lots. Si l'écriture échoue, les objets restent notés
+	 * modifiés.
+	 * @throws PersistanceException si la base a refusé l'écriture.
+	 */
+	
+	public void enregistrer()
+	{
+		List<Object> objets;
+		synchronized (this)
+		{
+			if (modifies == null || modifies.isEmpty())
+				return;
+			objets = new ArrayList<>(modifies);
+			modifies.clear();
+		}
+		boolean ecrits = false;
+		try
+		{
+			transaction(inscriptions -> {
+				for (Object objet : objets)
+					if (objet instanceof Personne)
+						getStockage().update((Personne) objet);
+					else if (objet instanceof Equipe)
+						getStockage().update((Equipe) objet);
+					else
+						getStockage().update((Competition) objet);
+			});
+			ecrits = true;
+		}
+		finally
+		{
+			if (!ecrits)
+				for (Object objet : objets)
+					modifie(objet);
+		}
+	}
+	
+	/**
+	 * Reporte sur l'objet d'un conflit les modifications faites en base
+	 * depuis sa lecture, en gardant celles faites en mémoire : un
+	 * enregistrement suivant peut alors les écrire.
+	 * @param conflit
+	 */
+	
+	public void fusionner(ConflitException conflit)
+	{
+		getStockage().fusionner(this, conflit.getEntite());
+	}
+	
+	/**
+	 * Exécute des modifications en une seule transaction : les créations,
+	 * modifications et inscriptions faites par la transaction sont écrites
+	 * ensemble, par lots, à la fin. Si la transaction lève une exception ou
+	 * que la base refuse l'écriture, rien n'est écrit et les objets en
+	 * mémoire reviennent à leur état d'avant la transaction.
+	 * 
+	 * Les lectures faites pendant la transaction ne voient pas encore
+	 * ses écritures en base. La transaction s'exécute sous le verrou de
+	 * l'inscription, mais l'écriture en base se fait hors du verrou.
+	 * @param transaction
+	 * @throws E l'exception levée par la transaction.
+	 * @throws PersistanceException si la base a refusé l'écriture.
+	 */
+	
+	public <E extends Exception> void transaction(Transaction<E> transaction) throws E
+	{
+		if (this.transaction == Thread.currentThread())
+		{
+			transaction.executer(this);
+			return;
+		}
+		Deque<Runnable> annulations;
+		synchronized (this)
+		{
+			this.annulations = new ArrayDeque<>();
+			this.transaction = Thread.currentThread();
+			getStockage().commencer();
+			boolean executee = false;
+			try
+			{
+				transaction.executer(this);
+				executee = true;
+			}
+			finally
+			{
+				annulations = this.annulations;
+				this.annulations = null;
+				this.transaction = null;
+				if (!executee)
+				{
+					getStockage().annuler();
+					annuler(annulations);
+				}
+			}
+		}
+		boolean validee = false;
+		try
+		{
+			getStockage().valider();
+			validee = true;
+		}
+		finally
+		{
+			if (!validee)
+				synchronized (this)
+				{
+					annuler(annulations);
+				}
+		}
+	}
+	
+	private static void annuler(Deque<Runnable> annulations)
+	{
+		while (!annulations.isEmpty())
+			annulations.pop().run();
+	}
+	
+	/**
+	 * Note comment défaire une modification en mémoire si la transaction
+	 * en cours échoue. Sans effet hors transaction.
+	 * @param annulation
+	 */
+	
+	void annulable(Runnable annulation)
+	{
+		if (transaction == Thread.currentThread())
+			annulations.push(annulation);
+	}
 	
 	void remove(Competition competition)
 	{
-		competitions.remove(competition);
+		if (competitions.remove(competition))
+			annulable(() -> competitions.add(competition));
 	}
 	
 	void remove(Candidat candidat)
 	{
-		candidats.remove(candidat);
+		if (retirer(candidat))
+			annulable(() -> ajouter(candidat));
 	}
 	
 	/**
 	 * Retourne l'unique instance de cette classe.
-	 * Crée cet objet s'il n'existe déj .
+	 * CrÃ©e cet objet s'il n'existe dÃ©jÃ .
 	 * @return l'unique objet de type {@link Inscriptions}.
 	 */
 	
@@ -190,9 +705,13 @@ public class Inscriptions implements Serializable
 		
 		if (inscriptions == null)
 		{
-			inscriptions = readObject();
+			if (!"fichier".equals(System.getProperty("bdd.stockage")))
+				inscriptions = readObject();
 			if (inscriptions == null)
 				inscriptions = new Inscriptions();
+			int taille = Integer.getInteger("bdd.cache.taille", 0);
+			if (taille > 0)
+				inscriptions.setCache(taille);
 		}
 		
 		
@@ -205,27 +724,55 @@ public class Inscriptions implements Serializable
 	}
 
 	/**
-	 * Retourne un object inscriptions vide. Ne modifie pas les compétitions
-	 * et candidats déj  existants.
+	 * Retourne un object inscriptions vide. Ne modifie pas les compÃ©titions
+	 * et candidats dÃ©jÃ  existants.
 	 */
 	
 	public Inscriptions reinitialiser()
 	{
+		fermer();
 		inscriptions = new Inscriptions();
 		return getInscriptions();
 	}
 
 	/**
-	 * Efface toutes les modifications sur Inscriptions depuis la dernière sauvegarde.
-	 * Ne modifie pas les compétitions et candidats déj  existants.
+	 * Efface toutes les modifications sur Inscriptions depuis la derniÃ¨re sauvegarde.
+	 * Ne modifie pas les compÃ©titions et candidats dÃ©jÃ  existants.
 	 */
 	
 	public Inscriptions recharger()
 	{
+		fermer();
 		inscriptions = null;
 		return getInscriptions();
 	}
 	
+	private void fermer()
+	{
+		if (stockage instanceof FileStorage)
+			((FileStorage) stockage).close();
+	}
+	
+	/**
+	 * Relit une inscription sauvegardée par {@link #sauvegarder()}, sur le
+	 * stockage donné : elle n'est pas écrite dans le stockage par défaut.
+	 * @param fichier
+	 * @param stockage
+	 * @return
+	 * @throws IOException
+	 * @throws ClassNotFoundException si le fichier ne contient pas une inscription.
+	 */
+
+	public static Inscriptions lire(String fichier, StorageEngine stockage) throws IOException, ClassNotFoundException
+	{
+		try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(fichier)))) {
+			Inscriptions lue = (Inscriptions) ois.readObject();
+			lue.stockage = stockage;
+			stockage.ouvrir(lue, lue.new Acces());
+			return lue;
+		}
+	}
+
 	private static Inscriptions readObject()
 	{
 		ObjectInputStream ois = null;
@@ -252,12 +799,19 @@ public class Inscriptions implements Serializable
 	
 	/**
 	 * Sauvegarde le gestionnaire pour qu'il soit ouvert automatiquement 
-	 * lors d'une exécution ultérieure du programme.
+	 * lors d'une exÃ©cution ultÃ©rieure du programme. Avec le stockage
+	 * en fichiers, chaque modification est déjà journalisée : attend
+	 * seulement qu'elles soient toutes sur disque.
 	 * @throws IOException 
 	 */
 	
 	public void sauvegarder() throws IOException
 	{
+		if (getStockage() instanceof FileStorage)
+		{
+			getStockage().flush();
+			return;
+		}
 		ObjectOutputStream oos = null;
 		try
 		{
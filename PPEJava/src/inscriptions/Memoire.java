@@ -0,0 +1,72 @@
+package inscriptions;
+
+import java.sql.Timestamp;
+
+/**
+ * Accès d'un stockage à la mémoire d'une {@link Inscriptions}, pour y
+ * reporter ce qu'il a lu, sans rien écrire. L'inscription ne le donne
+ * qu'à son stockage, à l'ouverture (voir
+ * {@link bdd.StorageEngine#ouvrir(Inscriptions, Memoire)}).
+ */
+
+public interface Memoire
+{
+	/**
+	 * Note jusqu'à quelle date le stockage a déjà été lu, pour que
+	 * {@link Inscriptions#getPersonnes()} et {@link Inscriptions#getEquipes()}
+	 * ne relisent que ce qui a changé depuis.
+	 * @param personnes null si rien n'a été lu.
+	 * @param equipes null si rien n'a été lu.
+	 */
+
+	void setLues(Timestamp personnes, Timestamp equipes);
+
+	/**
+	 * Ajoute à la mémoire un candidat lu en base.
+	 * @param candidat
+	 * @return faux si un candidat de même nom est déjà présent.
+	 */
+
+	boolean charger(Candidat candidat);
+
+	/**
+	 * Renomme en mémoire un candidat renommé en base.
+	 * @param candidat
+	 * @param nom
+	 */
+
+	void renommer(Candidat candidat, String nom);
+
+	void renommer(Competition competition, String nom);
+
+	/**
+	 * Met à jour en mémoire le prénom et l'adresse d'une personne modifiée
+	 * en base.
+	 * @param personne
+	 * @param prenom
+	 * @param mail
+	 */
+
+	void mettreAJour(Personne personne, String prenom, String mail);
+
+	/**
+	 * Retire de la mémoire un candidat supprimé en base, ainsi que ses
+	 * inscriptions et appartenances aux équipes, sans rien écrire.
+	 * @param candidat
+	 */
+
+	void oublier(Candidat candidat);
+
+	void oublier(Competition competition);
+
+	/**
+	 * Retire des ensembles de l'inscription un candidat évincé du cache. Il
+	 * existe toujours en base : ses inscriptions et appartenances aux
+	 * équipes restent en place.
+	 * @param candidat
+	 */
+
+	void evincer(Candidat candidat);
+
+	void evincer(Competition competition);
+}
@@ -1,23 +1,23 @@
 package inscriptions;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TreeSet;
 
-import bdd.Connect;;
-
 /**
- * Reprsente une personne physique pouvant s'inscrire  une comptition.
+ * Représente une personne physique pouvant s'inscrire à une compétition.
  */
 
 public class Personne extends Candidat
 {
 	private static final long serialVersionUID = 4434646724271327254L;
+	public static final String PRENOM = "prenom", MAIL = "mail";
 	private String prenom, mail;
 	private Set<Equipe> equipes;
 	boolean isDelete;
 
-	Connect bdd = new Connect();
 	
 	public Personne(Inscriptions inscriptions, String nom, String prenom, String mail, boolean save)
 	{
@@ -27,7 +27,7 @@ public class Personne extends Candidat
 		equipes = new TreeSet<>();
 			if(save)
 			 	{
-			 	bdd.save(this);
+			 	stockage().save(this);
 			 }
 	}
 
@@ -49,7 +49,7 @@ public class Personne extends Candidat
 	}
 	
 	/**
-	 * Retourne le prnom de la personne.
+	 * Retourne le prénom de la personne.
 	 * @return
 	 */
 	
@@ -59,18 +59,20 @@ public class Personne extends Candidat
 	}
 
 	/**
-	 * Modifie le prnom de la personne.
+	 * Modifie le prénom de la personne.
 	 * @param prenom
 	 */
 	
 	public void setPrenom(String prenom)
 	{
+		boolean modifie = !Objects.equals(this.prenom, prenom);
 		this.prenom = prenom;
-		//bdd.save(this);
+		if (modifie)
+			modifier(PRENOM);
 	}
 
 	/**
-	 * Retourne l'adresse lectronique de la personne.
+	 * Retourne l'adresse électronique de la personne.
 	 * @return
 	 */
 	
@@ -80,15 +82,31 @@ public class Personne extends Candidat
 	}
 
 	/**
-	 * Modifie l'adresse lectronique de la personne.
+	 * Modifie l'adresse électronique de la personne.
 	 * @param mail
 	 */
 	
 	public void setMail(String mail)
 	{
+		boolean modifie = !Objects.equals(this.mail, mail);
 		this.mail = mail;
+		if (modifie)
+			modifier(MAIL);
 	}
 	
+	/**
+	 * Remet le prénom et l'adresse sans les noter modifiés, à l'annulation
+	 * d'une transaction ou à la relecture en base.
+	 * @param prenom
+	 * @param mail
+	 */
+
+	void restaurer(String prenom, String mail)
+	{
+		this.prenom = prenom;
+		this.mail = mail;
+	}
+
 	/**
 	 * Retourne l'id de la personne.
 	 * @param mail
@@ -100,12 +118,13 @@ public class Personne extends Candidat
 	 */
 
 	/**
-	 * Retoure les quipes dont cette personne fait partie.
+	 * Retoure les équipes dont cette personne fait partie.
 	 * @return
 	 */
 	
 	public Set<Equipe> getEquipes()
 	{
+		stockage().chargerEquipes(this);
 		return Collections.unmodifiableSet(equipes);
 	}
 	
@@ -122,8 +141,10 @@ public class Personne extends Candidat
 	@Override
 	public void delete()
 	{
+		stockage().chargerEquipes(this);
 		super.delete();
-		for (Equipe e : equipes)
+		stockage().delete(this);
+		for (Equipe e : new ArrayList<>(equipes))
 			e.remove(this,true);
 	}
 	
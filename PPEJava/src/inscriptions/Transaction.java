@@ -0,0 +1,12 @@
+package inscriptions;
+
+/**
+ * Modifications exécutées ensemble par {@link Inscriptions#transaction(Transaction)} :
+ * soit elles sont toutes écrites en base, soit aucune ne l'est.
+ */
+
+@FunctionalInterface
+public interface Transaction<E extends Exception>
+{
+	void executer(Inscriptions inscriptions) throws E;
+}
@@ -1,84 +1,258 @@
-package test;
-import java.time.LocalDate;
-import static org.junit.Assert.*;
-import java.util.Set;
-
-import org.junit.Test;
-
-import inscriptions.*;
-public class InscriptionsTest {
-
-	Inscriptions i = Inscriptions.getInscriptions();
-	Competition cEquipe = i.createCompetition("CompetEquipeTest",LocalDate.now().plusDays(10), true, false);
-	Competition c = i.createCompetition("CompetSoloTest",LocalDate.now().plusDays(10), false, false);
-	Equipe equipeTest = i.createEquipe("EquipeTest",true);
-	Personne personneTest = i.createPersonne("TEST", "test", "mail",false);
-	
-	@Test
-	public void testGetCompetitions() {
-		Set<Competition> setCompetitionTest = i.getCompetitions();
-		assertFalse(setCompetitionTest.isEmpty());
-		
-	}
-
-	@Test
-	public void testGetCandidats() {
-		Set<Candidat> setCandidatTest = i.getCandidats();
-		assertFalse(setCandidatTest.isEmpty());
-	}
-
-	@Test
-	public void testCreateCompetition() {
-		Competition competitionTest2 = i.createCompetition("Test",LocalDate.now().plusDays(10), false, false);
-		Set <Competition> setCompetitionTest = i.getCompetitions();
-		assertTrue(setCompetitionTest.contains(competitionTest2));
-	}
-
-	@Test
-	public void testCreatePersonne() {
-		Personne personneTest2 = i.createPersonne("", "", "",false);
-		Set<Candidat>setPersonneTest2 = i.getCandidats();
-		assertTrue(setPersonneTest2.contains(personneTest2));
-	}
-
-	@Test
-	public void testCreateEquipe() {
-		Equipe equipeTest2 = i.createEquipe("",false);
-		Set<Candidat>setEquipeTest2 = i.getCandidats();
-		assertTrue(setEquipeTest2.contains(equipeTest2));
-	}
-
-	@Test
-	public void testRemoveCompetition() {
-		Set<Competition> setCompetitionTest = i.getCompetitions();
-		c.delete();
-		assertFalse(setCompetitionTest.contains(c));
-		
-	}
-
-	@Test
-	public void testRemoveCandidat() {
-		Set<Candidat>setCandidatTest = i.getCandidats();
-		personneTest.delete();
-		assertFalse(setCandidatTest.contains(personneTest));
-	}
-
-	@Test
-	public void testGetInscriptions() {
-		Inscriptions i = Inscriptions.getInscriptions();
-		assertEquals(i, Inscriptions.getInscriptions());
-	}
-
-	
-	/**
-	 *@Test
-	 *public void testSauvegarder() {
-	 *	fail("Not yet implemented");
-	 *}
-	 *
-	 */
-	
-
-
-
-}
+package test;
+import java.time.LocalDate;
+import static org.junit.Assert.*;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.Set;
+
+import org.junit.Test;
+
+import bdd.MemoryStorage;
+import inscriptions.*;
+public class InscriptionsTest {
+
+	Inscriptions i = Inscriptions.getInscriptions();
+	Competition cEquipe = i.createCompetition("CompetEquipeTest",LocalDate.now().plusDays(10), true, false);
+	Competition c = i.createCompetition("CompetSoloTest",LocalDate.now().plusDays(10), false, false);
+	Equipe equipeTest = i.createEquipe("EquipeTest",true);
+	Personne personneTest = i.createPersonne("TEST", "test", "mail",false);
+	
+	@Test
+	public void testGetCompetitions() {
+		Set<Competition> setCompetitionTest = i.getCompetitions();
+		assertFalse(setCompetitionTest.isEmpty());
+		
+	}
+
+	@Test
+	public void testGetCandidats() {
+		Set<Candidat> setCandidatTest = i.getCandidats();
+		assertFalse(setCandidatTest.isEmpty());
+	}
+
+	@Test
+	public void testCreateCompetition() {
+		Competition competitionTest2 = i.createCompetition("Test",LocalDate.now().plusDays(10), false, false);
+		Set <Competition> setCompetitionTest = i.getCompetitions();
+		assertTrue(setCompetitionTest.contains(competitionTest2));
+	}
+
+	@Test
+	public void testCreatePersonne() {
+		Personne personneTest2 = i.createPersonne("", "", "",false);
+		Set<Candidat>setPersonneTest2 = i.getCandidats();
+		assertTrue(setPersonneTest2.contains(personneTest2));
+	}
+
+	@Test
+	public void testCreateEquipe() {
+		Equipe equipeTest2 = i.createEquipe("",false);
+		Set<Candidat>setEquipeTest2 = i.getCandidats();
+		assertTrue(setEquipeTest2.contains(equipeTest2));
+	}
+
+	@Test
+	public void testStockageMemoire() {
+		Inscriptions memoire = new Inscriptions(new bdd.MemoryStorage());
+		Personne personneTest2 = memoire.createPersonne("Memoire", "test", "mail", true);
+		assertNotEquals(0, personneTest2.getId());
+		assertSame(personneTest2, memoire.getPersonne(personneTest2.getId()));
+		assertTrue(memoire.getPersonnes().contains(personneTest2));
+	}
+
+	@Test
+	public void testStockageFichier() throws Exception {
+		java.nio.file.Path dossier = java.nio.file.Files.createTempDirectory("journal");
+		bdd.FileStorage stockage = new bdd.FileStorage(dossier, "test", 2);
+		Inscriptions fichier = new Inscriptions(stockage);
+		Personne personneTest2 = fichier.createPersonne("Fichier", "test", "mail", true);
+		Competition competitionTest2 = fichier.createCompetition("CompetFichier", LocalDate.now().plusDays(10), false, true);
+		competitionTest2.add(personneTest2);
+		fichier.editePersonne(personneTest2, "Renommee", "test", "mail");
+		stockage.close();
+		Inscriptions relue = new Inscriptions(new bdd.FileStorage(dossier, "test", 2));
+		Personne lue = relue.getPersonne(personneTest2.getId());
+		assertEquals("Renommee", lue.getNom());
+		assertEquals(competitionTest2.getId(), lue.getCompetitions().iterator().next().getId());
+	}
+
+	@Test
+	public void testStockageAsynchrone() throws Exception {
+		Inscriptions memoire = new Inscriptions(new bdd.MemoryStorage() {
+			@Override
+			public void update(Personne personne) {
+				throw new bdd.PersistanceException("Refusée", null);
+			}
+		});
+		bdd.AsyncStorage async = new bdd.AsyncStorage(memoire);
+		Personne personneTest2 = memoire.createPersonne("Async", "test", "mail", false);
+		assertNotEquals(0, async.savePersonneAsync(personneTest2).get().getId());
+		assertTrue(async.loadPersonnesAsync().get().contains(personneTest2));
+		try {
+			async.updateAsync(personneTest2).get();
+			fail();
+		} catch (java.util.concurrent.ExecutionException e) {
+			assertTrue(e.getCause() instanceof bdd.PersistanceException);
+		}
+	}
+
+	@Test
+	public void testPagePersonnes() {
+		Inscriptions memoire = new Inscriptions(new bdd.MemoryStorage());
+		for (String nom : new String[] {"A", "B", "C", "D", "E"})
+			memoire.createPersonne(nom, "test", "mail", true);
+		bdd.Page<Personne> page = memoire.getPersonnes(null, 2);
+		assertEquals("A", page.getElements().get(0).getNom());
+		page = memoire.getPersonnes(page.getSuivante(), 2);
+		assertEquals("C", page.getElements().get(0).getNom());
+		page = memoire.getPersonnes(page.getSuivante(), 2);
+		assertEquals(1, page.getElements().size());
+		assertTrue(page.estDerniere());
+	}
+
+	@Test
+	public void testTransactionAnnulee() throws DateInvalide {
+		Inscriptions memoire = new Inscriptions(new MemoryStorage());
+		Competition solo = memoire.createCompetition("CompetSoloTest", LocalDate.now().plusDays(10), false, true);
+		Personne existante = memoire.createPersonne("Existante", "test", "mail", true);
+		int[] id = new int[1];
+		try {
+			memoire.transaction(inscriptions -> {
+				Personne personneTest2 = inscriptions.createPersonne("Annulee", "test", "mail", true);
+				id[0] = personneTest2.getId();
+				solo.add(personneTest2);
+				inscriptions.editeCompetition(solo, "Renommee");
+				inscriptions.editePersonne(existante, "Renommee", "autre", "autre");
+				throw new IllegalStateException();
+			});
+			fail();
+		} catch (IllegalStateException e) {
+			for (Candidat candidat : memoire.getCandidats())
+				assertFalse(candidat.getNom().equals("Annulee"));
+			assertNull(memoire.getPersonne(id[0]));
+			assertTrue(solo.getCandidats().isEmpty());
+			assertEquals("CompetSoloTest", solo.getNom());
+			assertFalse(solo.estModifie());
+			assertEquals("Existante", existante.getNom());
+			assertEquals("test", existante.getPrenom());
+			assertFalse(existante.estModifie());
+		}
+	}
+
+	@Test
+	public void testEvincerGardeLesInscriptions() throws DateInvalide {
+		StockageCompteur stockage = new StockageCompteur();
+		Inscriptions memoire = new Inscriptions(stockage);
+		Competition competition = memoire.createCompetition("CompetCacheTest", LocalDate.now().plusDays(10), false, true);
+		Personne personne = memoire.createPersonne("CacheTest", "test", "mail", true);
+		competition.add(personne);
+		stockage.memoire.evincer(personne);
+		assertFalse(memoire.getCandidats().contains(personne));
+		assertTrue(competition.getCandidats().contains(personne));
+		assertTrue(personne.getCompetitions().contains(competition));
+		assertEquals(0, stockage.suppressions);
+	}
+
+	@Test
+	public void testOublierNEcritRien() throws DateInvalide {
+		StockageCompteur stockage = new StockageCompteur();
+		Inscriptions memoire = new Inscriptions(stockage);
+		Competition competition = memoire.createCompetition("CompetOublierTest", LocalDate.now().plusDays(10), false, true);
+		Equipe equipe = memoire.createEquipe("EquipeOublierTest", true);
+		Personne personne = memoire.createPersonne("OublierTest", "test", "mail", true);
+		competition.add(personne);
+		equipe.add(personne, true);
+		stockage.memoire.oublier(personne);
+		assertEquals(0, stockage.suppressions);
+		assertFalse(competition.getCandidats().contains(personne));
+		assertTrue(equipe.getMembres().isEmpty());
+		Personne autre = memoire.createPersonne("OublierTest2", "test", "mail", true);
+		competition.add(autre);
+		stockage.memoire.oublier(competition);
+		assertEquals(0, stockage.suppressions);
+		assertTrue(autre.getCompetitions().isEmpty());
+	}
+
+	@Test
+	public void testRemoveCompetition() {
+		Set<Competition> setCompetitionTest = i.getCompetitions();
+		c.delete();
+		assertFalse(setCompetitionTest.contains(c));
+		
+	}
+
+	@Test
+	public void testRemoveCandidat() {
+		Set<Candidat>setCandidatTest = i.getCandidats();
+		personneTest.delete();
+		assertFalse(setCandidatTest.contains(personneTest));
+	}
+
+	@Test
+	public void testGetInscriptions() {
+		Inscriptions i = Inscriptions.getInscriptions();
+		assertEquals(i, Inscriptions.getInscriptions());
+	}
+
+	@Test
+	public void testLire() throws Exception {
+		Inscriptions memoire = new Inscriptions(new MemoryStorage());
+		memoire.createCompetition("CompetEquipeTest", LocalDate.now().plusDays(10), true, true);
+		Equipe equipe = memoire.createEquipe("EquipeTest", true);
+		equipe.add(memoire.createPersonne("TEST", "test", "mail", true), true);
+		File fichier = File.createTempFile("Inscriptions", ".srz");
+		fichier.deleteOnExit();
+		try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(fichier))) {
+			oos.writeObject(memoire);
+		}
+		Inscriptions lue = Inscriptions.lire(fichier.getPath(), new MemoryStorage());
+		assertNotSame(memoire, lue);
+		assertEquals(1, lue.getCompetitions().size());
+		assertEquals(2, lue.getCandidats().size());
+		Equipe equipeLue = lue.getEquipes().first();
+		assertEquals("EquipeTest", equipeLue.getNom());
+		assertEquals("TEST", equipeLue.getMembres().iterator().next().getNom());
+	}
+
+	
+	/**
+	 * Stockage en mémoire qui compte les suppressions écrites et garde
+	 * l'accès à la mémoire de l'inscription.
+	 */
+
+	static class StockageCompteur extends MemoryStorage {
+		Memoire memoire;
+		int suppressions;
+
+		@Override
+		public void ouvrir(Inscriptions inscription, Memoire memoire) {
+			super.ouvrir(inscription, memoire);
+			this.memoire = memoire;
+		}
+
+		@Override
+		public void delete(Candidat candidat, Competition competition) {
+			suppressions++;
+			super.delete(candidat, competition);
+		}
+
+		@Override
+		public void delete(Personne personne, Equipe equipe) {
+			suppressions++;
+			super.delete(personne, equipe);
+		}
+	}
+
+	/**
+	 *@Test
+	 *public void testSauvegarder() {
+	 *	fail("Not yet implemented");
+	 *}
+	 *
+	 */
+	
+
+
+
+}